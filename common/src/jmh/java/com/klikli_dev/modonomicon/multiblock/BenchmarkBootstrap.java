@@ -0,0 +1,70 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.multiblock;
+
+import com.klikli_dev.modonomicon.data.LoaderRegistry;
+import com.klikli_dev.modonomicon.multiblock.matcher.*;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sets up just enough of the game to run the multiblock code outside of a loader: vanilla registries, the state
+ * matcher and multiblock loaders, and the block tags the benchmark structures use.
+ */
+public class BenchmarkBootstrap {
+
+    private static boolean initialized;
+
+    public static synchronized void init() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+
+        //only what multiblocks need, LoaderRegistry#registerLoaders would also pull in all book pages
+        LoaderRegistry.registerPredicate(Matchers.AIR_PREDICATE, (getter, pos, state) -> state.isAir());
+        LoaderRegistry.registerPredicate(Matchers.NON_SOLID_PREDICATE, (getter, pos, state) -> !state.isSolid());
+        LoaderRegistry.registerStateMatcherLoader(AnyMatcher.TYPE, AnyMatcher::fromJson, AnyMatcher::fromNetwork);
+        LoaderRegistry.registerStateMatcherLoader(BlockMatcher.TYPE, BlockMatcher::fromJson, BlockMatcher::fromNetwork);
+        LoaderRegistry.registerStateMatcherLoader(BlockStateMatcher.TYPE, BlockStateMatcher::fromJson, BlockStateMatcher::fromNetwork);
+        LoaderRegistry.registerStateMatcherLoader(BlockStatePropertyMatcher.TYPE, BlockStatePropertyMatcher::fromJson, BlockStatePropertyMatcher::fromNetwork);
+        LoaderRegistry.registerStateMatcherLoader(DisplayOnlyMatcher.TYPE, DisplayOnlyMatcher::fromJson, DisplayOnlyMatcher::fromNetwork);
+        LoaderRegistry.registerStateMatcherLoader(PredicateMatcher.TYPE, PredicateMatcher::fromJson, PredicateMatcher::fromNetwork);
+        LoaderRegistry.registerStateMatcherLoader(TagMatcher.TYPE, TagMatcher::fromJson, TagMatcher::fromNetwork);
+        LoaderRegistry.registerMultiblockLoader(DenseMultiblock.TYPE, DenseMultiblock::fromJson, DenseMultiblock::fromNetwork);
+        LoaderRegistry.registerMultiblockLoader(SparseMultiblock.TYPE, SparseMultiblock::fromJson, SparseMultiblock::fromNetwork);
+
+        //no data packs are loaded, so bind the tags ourselves
+        BuiltInRegistries.BLOCK.bindTags(Map.of(BlockTags.LOGS, List.of(
+                Blocks.OAK_LOG.builtInRegistryHolder(),
+                Blocks.SPRUCE_LOG.builtInRegistryHolder(),
+                Blocks.BIRCH_LOG.builtInRegistryHolder(),
+                Blocks.JUNGLE_LOG.builtInRegistryHolder(),
+                Blocks.ACACIA_LOG.builtInRegistryHolder(),
+                Blocks.DARK_OAK_LOG.builtInRegistryHolder(),
+                Blocks.MANGROVE_LOG.builtInRegistryHolder(),
+                Blocks.CHERRY_LOG.builtInRegistryHolder()
+        )));
+        //the registry mixin that usually does this is not applied outside of a loader
+        CompiledStateSet.invalidateAll();
+    }
+
+    public static List<Block> logs() {
+        return List.of(Blocks.OAK_LOG, Blocks.SPRUCE_LOG, Blocks.BIRCH_LOG, Blocks.JUNGLE_LOG,
+                Blocks.ACACIA_LOG, Blocks.DARK_OAK_LOG, Blocks.MANGROVE_LOG, Blocks.CHERRY_LOG);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.multiblock;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.klikli_dev.modonomicon.multiblock.matcher.BlockMatcher;
+import com.klikli_dev.modonomicon.multiblock.matcher.BlockStatePropertyMatcher;
+import com.klikli_dev.modonomicon.multiblock.matcher.TagMatcher;
+
+/**
+ * Generates the structures benchmarks run against: a hollow cube of edge length n, with a floor of stone bricks,
+ * log pillars (tag matcher) in the corners, a rim of top half stairs (property matcher) and glass walls with one plank
+ * block in the middle of the first wall. The plank block makes the structure match in one rotation only, like most
+ * real multiblocks. The inside is air, which is what most real multiblocks are made of.
+ */
+public class BenchmarkStructures {
+
+    public static int edgeLength(String size) {
+        return switch (size) {
+            case "small" -> 3;
+            case "medium" -> 9;
+            case "large" -> 32;
+            default -> throw new IllegalArgumentException("Unknown structure size " + size);
+        };
+    }
+
+    public static AbstractMultiblock create(String type, String size) {
+        int n = edgeLength(size);
+        return switch (type) {
+            case "dense" -> DenseMultiblock.fromJson(dense(n));
+            case "sparse" -> SparseMultiblock.fromJson(sparse(n));
+            default -> throw new IllegalArgumentException("Unknown multiblock type " + type);
+        };
+    }
+
+    /**
+     * @param y from the bottom
+     */
+    private static char charAt(int n, int x, int y, int z) {
+        boolean edgeX = x == 0 || x == n - 1;
+        boolean edgeZ = z == 0 || z == n - 1;
+        if (y == 0 && x == n / 2 && z == n / 2) {
+            return '0';
+        }
+        if (x == 0 && y == n / 2 && z == n / 2) {
+            return 'P';
+        }
+        if (edgeX && edgeZ) {
+            return 'L';
+        }
+        if (y == 0) {
+            return 'S';
+        }
+        if (edgeX || edgeZ) {
+            return y == n - 1 ? 'F' : 'G';
+        }
+        return ' ';
+    }
+
+    private static JsonObject mapping() {
+        var mapping = new JsonObject();
+        mapping.add("S", matcher(BlockMatcher.TYPE.toString(), "block", "minecraft:stone_bricks"));
+        mapping.add("P", matcher(BlockMatcher.TYPE.toString(), "block", "minecraft:oak_planks"));
+        mapping.add("G", matcher(BlockMatcher.TYPE.toString(), "block", "minecraft:glass"));
+        mapping.add("F", matcher(BlockStatePropertyMatcher.TYPE.toString(), "block", "minecraft:oak_stairs[half=top]"));
+        mapping.add("L", matcher(TagMatcher.TYPE.toString(), "tag", "minecraft:logs"));
+        return mapping;
+    }
+
+    static JsonObject matcher(String type, String key, String value) {
+        var json = new JsonObject();
+        json.addProperty("type", type);
+        json.addProperty(key, value);
+        return json;
+    }
+
+    private static JsonObject dense(int n) {
+        var pattern = new JsonArray();
+        //the first layer of the pattern is the top layer
+        for (int y = n - 1; y >= 0; y--) {
+            var layer = new JsonArray();
+            for (int x = 0; x < n; x++) {
+                var row = new StringBuilder();
+                for (int z = 0; z < n; z++) {
+                    row.append(charAt(n, x, y, z));
+                }
+                layer.add(row.toString());
+            }
+            pattern.add(layer);
+        }
+
+        var json = new JsonObject();
+        json.addProperty("type", DenseMultiblock.TYPE.toString());
+        json.add("pattern", pattern);
+        json.add("mapping", mapping());
+        return json;
+    }
+
+    private static JsonObject sparse(int n) {
+        var pattern = new JsonObject();
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                for (int z = 0; z < n; z++) {
+                    char c = charAt(n, x, y, z);
+                    if (c == ' ' || c == '0') {
+                        continue; //sparse multiblocks only list what matters
+                    }
+                    var pos = new JsonArray();
+                    pos.add(x);
+                    pos.add(y);
+                    pos.add(z);
+                    if (!pattern.has(String.valueOf(c))) {
+                        pattern.add(String.valueOf(c), new JsonArray());
+                    }
+                    pattern.getAsJsonArray(String.valueOf(c)).add(pos);
+                }
+            }
+        }
+
+        var json = new JsonObject();
+        json.addProperty("type", SparseMultiblock.TYPE.toString());
+        json.add("pattern", pattern);
+        json.add("mapping", mapping());
+        return json;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.multiblock;
+
+import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
+import com.klikli_dev.modonomicon.data.LoaderRegistry;
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.block.Rotation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulation, validation and network serialization of dense and sparse multiblocks of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MultiblockBenchmark {
+
+    private static final BlockPos ANCHOR = new BlockPos(0, 64, 0);
+    /**
+     * Where the stub level is all air, validation fails on the first position in every rotation.
+     */
+    private static final BlockPos EMPTY_ANCHOR = new BlockPos(1000, 64, 1000);
+    /**
+     * The structure is not rotationally symmetric and this is the third rotation validation tries, so validating all
+     * rotations first fails in two rotations before finding the match.
+     */
+    private static final Rotation PLACED_ROTATION = Rotation.CLOCKWISE_180;
+
+    @Param({"dense", "sparse"})
+    public String type;
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private AbstractMultiblock multiblock;
+    private MultiblockValidator validator;
+    private StubLevelReader level;
+    private FriendlyByteBuf writeBuffer;
+    private byte[] networkData;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkBootstrap.init();
+
+        this.multiblock = BenchmarkStructures.create(this.type, this.size);
+        this.validator = this.multiblock.getValidator();
+        this.level = new StubLevelReader();
+        this.level.place(this.multiblock, ANCHOR, PLACED_ROTATION);
+
+        if (this.validateAllRotations() != PLACED_ROTATION) {
+            throw new IllegalStateException("Benchmark structure does not validate in the placed rotation only, the benchmark would measure nothing useful.");
+        }
+
+        this.writeBuffer = new FriendlyByteBuf(Unpooled.buffer());
+        this.multiblock.toNetwork(this.writeBuffer);
+        this.networkData = new byte[this.writeBuffer.readableBytes()];
+        this.writeBuffer.getBytes(0, this.networkData);
+    }
+
+    @Benchmark
+    public Collection<Multiblock.SimulateResult> simulate() {
+        return this.multiblock.simulate(null, ANCHOR, Rotation.NONE, false, false).getSecond();
+    }
+
+    /**
+     * Like {@link Multiblock#validate(net.minecraft.world.level.Level, BlockPos)}: the first rotation that works, read
+     * through chunk sections like in game.
+     */
+    @Benchmark
+    public Rotation validateAllRotations() {
+        for (var rotation : this.validator.getRotations()) {
+            if (this.validator.check(this.level, ANCHOR, rotation) == MultiblockValidator.Result.VALID) {
+                return rotation;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public boolean validateEmpty() {
+        for (var rotation : this.validator.getRotations()) {
+            if (this.validator.check(this.level, EMPTY_ANCHOR, rotation) == MultiblockValidator.Result.VALID) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public int toNetwork() {
+        this.writeBuffer.clear();
+        this.multiblock.toNetwork(this.writeBuffer);
+        return this.writeBuffer.writerIndex();
+    }
+
+    @Benchmark
+    public Multiblock fromNetwork() {
+        var buffer = new FriendlyByteBuf(Unpooled.wrappedBuffer(this.networkData));
+        return LoaderRegistry.getMultiblockNetworkLoader(this.multiblock.getType()).fromNetwork(buffer);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.multiblock;
+
+import com.klikli_dev.modonomicon.api.multiblock.StateMatcher;
+import com.klikli_dev.modonomicon.api.multiblock.TriPredicate;
+import com.klikli_dev.modonomicon.data.LoaderRegistry;
+import com.klikli_dev.modonomicon.multiblock.matcher.BlockStatePropertyMatcher;
+import com.klikli_dev.modonomicon.multiblock.matcher.TagMatcher;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Predicate tests of the matchers that have to look at more than the block, against a mix of matching and not
+ * matching states.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StateMatcherBenchmark {
+
+    @Param({"tag", "tag_with_properties", "property"})
+    public String matcher;
+
+    private StateMatcher stateMatcher;
+    private TriPredicate<BlockGetter, BlockPos, BlockState> predicate;
+    private BlockState[] states;
+    private StubLevelReader level;
+    private long ticks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkBootstrap.init();
+
+        this.stateMatcher = switch (this.matcher) {
+            case "tag" -> this.create(TagMatcher.TYPE, "tag", "minecraft:logs");
+            case "tag_with_properties" -> this.create(TagMatcher.TYPE, "tag", "minecraft:logs[axis=y]");
+            case "property" -> this.create(BlockStatePropertyMatcher.TYPE, "block", "minecraft:oak_stairs[half=top,facing=north]");
+            default -> throw new IllegalArgumentException("Unknown matcher " + this.matcher);
+        };
+        this.predicate = this.stateMatcher.getStatePredicate();
+        this.level = new StubLevelReader();
+
+        var states = new ArrayList<BlockState>();
+        for (var block : BenchmarkBootstrap.logs()) {
+            states.addAll(block.getStateDefinition().getPossibleStates());
+        }
+        for (var block : new Block[]{Blocks.OAK_STAIRS, Blocks.STONE_BRICKS, Blocks.GLASS, Blocks.AIR}) {
+            states.addAll(block.getStateDefinition().getPossibleStates());
+        }
+        this.states = states.toArray(BlockState[]::new);
+    }
+
+    private StateMatcher create(ResourceLocation type, String key, String value) {
+        return LoaderRegistry.getStateMatcherJsonLoader(type).fromJson(BenchmarkStructures.matcher(type.toString(), key, value));
+    }
+
+    /**
+     * Tests every state once per invocation.
+     */
+    @Benchmark
+    public int test() {
+        int matches = 0;
+        for (var state : this.states) {
+            if (this.predicate.test(this.level, BlockPos.ZERO, state)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * What renderers call per position and frame.
+     */
+    @Benchmark
+    public BlockState getDisplayedState() {
+        return this.stateMatcher.getDisplayedState(this.ticks++);
+    }
+}
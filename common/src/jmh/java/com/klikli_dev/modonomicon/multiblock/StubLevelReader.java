@@ -0,0 +1,180 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.multiblock;
+
+import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.Holder;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.flag.FeatureFlagSet;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeManager;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.border.WorldBorder;
+import net.minecraft.world.level.chunk.*;
+import net.minecraft.world.level.dimension.DimensionType;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.lighting.LevelLightEngine;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.shapes.VoxelShape;
+import net.minecraft.world.ticks.ProtoChunkTicks;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * A minimal level: chunks made of real chunk sections, so validation reads blocks the way it does in game, see
+ * {@link MultiblockValidator#check(LevelReader, BlockPos, Rotation)}. Every chunk is loaded and air until something is
+ * placed in it, there are no block entities.
+ */
+public class StubLevelReader implements LevelReader {
+
+    private static final int MIN_BUILD_HEIGHT = -64;
+    private static final int HEIGHT = 384;
+
+    private final Long2ObjectMap<ChunkAccess> chunks = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Places the displayed state of every position of the multiblock, so it validates at the given anchor and rotation.
+     */
+    public void place(Multiblock multiblock, BlockPos anchor, Rotation rotation) {
+        for (var result : multiblock.simulate(null, anchor, rotation, false, false).getSecond()) {
+            var pos = result.getWorldPosition();
+            var section = this.getChunk(pos).getSection(this.getSectionIndex(pos.getY()));
+            section.setBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15, result.getStateMatcher().getDisplayedState(0).rotate(rotation));
+        }
+    }
+
+    private ChunkAccess createChunk(int x, int z) {
+        var sections = new LevelChunkSection[this.getSectionsCount()];
+        for (int i = 0; i < sections.length; i++) {
+            //biomes are never read, the benchmarks only look at block states
+            sections[i] = new LevelChunkSection(new PalettedContainer<>(Block.BLOCK_STATE_REGISTRY, Blocks.AIR.defaultBlockState(), PalettedContainer.Strategy.SECTION_STATES), null);
+        }
+        return new ProtoChunk(new ChunkPos(x, z), UpgradeData.EMPTY, sections, new ProtoChunkTicks<>(), new ProtoChunkTicks<>(), this, null, null);
+    }
+
+    @Override
+    public ChunkAccess getChunk(int x, int z, ChunkStatus requiredStatus, boolean nonnull) {
+        var chunk = this.chunks.get(ChunkPos.asLong(x, z));
+        if (chunk == null) {
+            chunk = this.createChunk(x, z);
+            this.chunks.put(ChunkPos.asLong(x, z), chunk);
+        }
+        return chunk;
+    }
+
+    @Override
+    public boolean hasChunk(int chunkX, int chunkZ) {
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        if (this.isOutsideBuildHeight(pos)) {
+            return Blocks.VOID_AIR.defaultBlockState();
+        }
+        return this.getChunk(pos).getSection(this.getSectionIndex(pos.getY())).getBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return this.getBlockState(pos).getFluidState();
+    }
+
+    @Override
+    public int getHeight() {
+        return HEIGHT;
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return MIN_BUILD_HEIGHT;
+    }
+
+    @Override
+    public int getHeight(Heightmap.Types heightmapType, int x, int z) {
+        return MIN_BUILD_HEIGHT;
+    }
+
+    @Override
+    public int getSkyDarken() {
+        return 0;
+    }
+
+    @Override
+    public boolean isClientSide() {
+        return false;
+    }
+
+    @Override
+    public int getSeaLevel() {
+        return 63;
+    }
+
+    @Override
+    public float getShade(Direction direction, boolean shade) {
+        return 1.0F;
+    }
+
+    @Override
+    public BiomeManager getBiomeManager() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Holder<Biome> getUncachedNoiseBiome(int x, int y, int z) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public DimensionType dimensionType() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public RegistryAccess registryAccess() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FeatureFlagSet enabledFeatures() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public LevelLightEngine getLightEngine() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public WorldBorder getWorldBorder() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<VoxelShape> getEntityCollisions(@Nullable Entity entity, AABB collisionBox) {
+        return List.of();
+    }
+}
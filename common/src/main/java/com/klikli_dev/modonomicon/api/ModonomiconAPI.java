@@ -10,6 +10,8 @@ import com.google.common.base.Suppliers;
 import com.klikli_dev.modonomicon.api.datagen.BookContextHelper;
 import com.klikli_dev.modonomicon.api.datagen.CategoryEntryMap;
 import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
+import com.klikli_dev.modonomicon.api.multiblock.MultiblockSearch;
+import com.klikli_dev.modonomicon.api.multiblock.MultiblockValidationCache;
 import com.klikli_dev.modonomicon.api.stub.ModonomiconAPIStub;
 import net.minecraft.resources.ResourceLocation;
 import org.apache.logging.log4j.LogManager;
@@ -44,6 +46,16 @@ public interface ModonomiconAPI {
 
     Multiblock getMultiblock(ResourceLocation id);
 
+    /**
+     * Gets the server side cache for multiblock validation results.
+     */
+    MultiblockValidationCache getMultiblockValidationCache();
+
+    /**
+     * Gets the search to find formed multiblocks without knowing their anchor.
+     */
+    MultiblockSearch getMultiblockSearch();
+
     class Helper {
         private static final Supplier<ModonomiconAPI> lazyInstance = Suppliers.memoize(() -> {
             try {
@@ -157,6 +157,9 @@ public class ModonomiconConstants {
             public static final String OPEN_SEARCH = PREFIX + "open_search";
 
             public static final String RECIPE_PAGE_RECIPE_MISSING = PREFIX + "recipe_page.recipe_missing";
+
+            public static final String DEBUG_OVERLAY_EXPORTED = PREFIX + "debug_overlay.exported";
+            public static final String DEBUG_OVERLAY_EXPORT_FAILED = PREFIX + "debug_overlay.export_failed";
         }
 
         public static class Multiblock {
@@ -0,0 +1,37 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.api.multiblock;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+import java.util.List;
+
+/**
+ * Finds formed multiblocks in an area of the world, without knowing their anchor.
+ * <br>
+ * <br>
+ * Instead of validating every position in the area in every rotation, only chunk sections that contain the rarest
+ * block of the multiblock are scanned, and only anchors that line up with such a block are validated. Chunks that are
+ * not loaded are skipped, they are never loaded by the search. Must be called on the thread that owns the level.
+ */
+public interface MultiblockSearch {
+
+    /**
+     * Finds all anchors within the given area at which the multiblock is formed.
+     *
+     * @param area the area the anchors (as passed to {@link Multiblock#validate(Level, BlockPos)}) have to be in.
+     *             The blocks of the multiblock may extend past it.
+     * @return the anchors and rotations of all formed multiblocks, in no particular order.
+     */
+    List<Match> find(Level level, Multiblock multiblock, BoundingBox area);
+
+    record Match(BlockPos anchor, Rotation rotation) {
+    }
+}
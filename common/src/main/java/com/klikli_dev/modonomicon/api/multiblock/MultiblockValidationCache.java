@@ -0,0 +1,47 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.api.multiblock;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Rotation;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Remembers multiblock validation results on the server, until a block in the area covered by the multiblock changes.
+ * <br>
+ * <br>
+ * Use this instead of {@link Multiblock#validate(Level, BlockPos)} if you validate the same multiblock repeatedly,
+ * e.g. every few ticks from a block entity: as long as nothing changed, the result is returned without looking at the
+ * world. On the client, or off the server thread, results are not cached and the methods behave like the
+ * corresponding methods of {@link Multiblock}.
+ * <br>
+ * <br>
+ * Only block state changes are noticed. Multiblocks with a matcher that looks at anything else, e.g. a custom predicate
+ * that reads block entities or their NBT, are not cached and validated every time, see
+ * {@link StateMatcher#isStateOnly()}.
+ */
+public interface MultiblockValidationCache {
+
+    /**
+     * Validates if the multiblock exists at the given position, like {@link Multiblock#validate(Level, BlockPos)}.
+     *
+     * @return The rotation that worked, null if no match
+     */
+    @Nullable
+    Rotation validate(Level level, Multiblock multiblock, BlockPos pos);
+
+    /**
+     * Validates the multiblock for a specific rotation, like {@link Multiblock#validate(Level, BlockPos, Rotation)}.
+     */
+    boolean validate(Level level, Multiblock multiblock, BlockPos pos, Rotation rotation);
+
+    /**
+     * Forgets all results for the given multiblock, e.g. because it was changed or replaced.
+     */
+    void invalidate(Multiblock multiblock);
+}
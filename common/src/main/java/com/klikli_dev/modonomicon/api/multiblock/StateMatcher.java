@@ -47,4 +47,23 @@ public interface StateMatcher {
      */
     boolean countsTowardsTotalBlocks();
 
+    /**
+     * If true, whether a state matches does not depend on its rotation, e.g. because only the block is checked.
+     * Multiblocks that consist only of rotation invariant matchers are checked for rotational symmetry, so validation
+     * can skip rotations that are equivalent. Returning false is always safe.
+     */
+    default boolean isRotationInvariant() {
+        return false;
+    }
+
+    /**
+     * If true, the predicate only looks at the state it is passed, not at the world or the position, e.g. at block
+     * entities or their NBT. Results of such matchers can be cached until the block state changes, see
+     * {@link MultiblockValidationCache}, and checked off the server thread. Their predicates may be given a mutable
+     * position that changes after the call, the predicates of other matchers are always given an immutable one.
+     * Returning false is always safe.
+     */
+    default boolean isStateOnly() {
+        return false;
+    }
 }
@@ -11,6 +11,8 @@ import com.klikli_dev.modonomicon.api.ModonomiconAPI;
 import com.klikli_dev.modonomicon.api.datagen.BookContextHelper;
 import com.klikli_dev.modonomicon.api.datagen.CategoryEntryMap;
 import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
+import com.klikli_dev.modonomicon.api.multiblock.MultiblockSearch;
+import com.klikli_dev.modonomicon.api.multiblock.MultiblockValidationCache;
 import net.minecraft.resources.ResourceLocation;
 
 public class ModonomiconAPIStub implements ModonomiconAPI {
@@ -42,4 +44,14 @@ public class ModonomiconAPIStub implements ModonomiconAPI {
     public Multiblock getMultiblock(ResourceLocation id) {
         return null;
     }
+
+    @Override
+    public MultiblockValidationCache getMultiblockValidationCache() {
+        return null;
+    }
+
+    @Override
+    public MultiblockSearch getMultiblockSearch() {
+        return null;
+    }
 }
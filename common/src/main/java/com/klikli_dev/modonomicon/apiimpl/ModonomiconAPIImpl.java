@@ -10,7 +10,11 @@ import com.klikli_dev.modonomicon.api.ModonomiconAPI;
 import com.klikli_dev.modonomicon.api.datagen.BookContextHelper;
 import com.klikli_dev.modonomicon.api.datagen.CategoryEntryMap;
 import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
+import com.klikli_dev.modonomicon.api.multiblock.MultiblockSearch;
+import com.klikli_dev.modonomicon.api.multiblock.MultiblockValidationCache;
 import com.klikli_dev.modonomicon.data.MultiblockDataManager;
+import com.klikli_dev.modonomicon.multiblock.MultiblockSearchImpl;
+import com.klikli_dev.modonomicon.multiblock.MultiblockValidationCacheImpl;
 import net.minecraft.resources.ResourceLocation;
 
 public class ModonomiconAPIImpl implements ModonomiconAPI {
@@ -32,4 +36,14 @@ public class ModonomiconAPIImpl implements ModonomiconAPI {
     public Multiblock getMultiblock(ResourceLocation id) {
         return MultiblockDataManager.get().getMultiblock(id);
     }
+
+    @Override
+    public MultiblockValidationCache getMultiblockValidationCache() {
+        return MultiblockValidationCacheImpl.get();
+    }
+
+    @Override
+    public MultiblockSearch getMultiblockSearch() {
+        return MultiblockSearchImpl.get();
+    }
 }
@@ -49,6 +49,10 @@ public class Book {
     protected ConcurrentMap<ResourceLocation, BookCategory> categories;
     protected ConcurrentMap<ResourceLocation, BookEntry> entries;
     protected ConcurrentMap<ResourceLocation, BookCommand> commands;
+    /**
+     * The number of entries that have an ordinal, see {@link BookEntry#getOrdinal()}. Assigned when the book is built.
+     */
+    protected int entryCount;
 
 
     protected int defaultTitleColor;
@@ -243,6 +247,11 @@ public class Book {
             }
         }
 
+        this.entryCount = 0;
+        for (var entry : this.entries.values()) {
+            entry.ordinal = this.entryCount++;
+        }
+
         //then build categories, which will in turn build entries (which need the above backlinks to resolve parents)
         for (var category : this.categories.values()) {
             BookErrorManager.get().getContextHelper().categoryId = category.getId();
@@ -358,6 +367,13 @@ public class Book {
         return this.entries;
     }
 
+    /**
+     * @return the number of entries, all ordinals are below this. Only valid after the book is built.
+     */
+    public int getEntryCount() {
+        return this.entryCount;
+    }
+
     public void addCommand(BookCommand command) {
         this.commands.putIfAbsent(command.id, command);
     }
@@ -118,11 +118,27 @@ public class BookCommand {
     }
 
     public void execute(ServerPlayer player) {
+        if (!this.run(player))
+            return;
+
+        //Even if the command fails we sync the capability.
+        //This allows us to "Pretend" success clientside and disable the command source (button/link/etc) so the player cannot spam-click it.
+        //spam-clicking would not allow abuse anyway, but would lead to error messages sent back to the player.
+        BookUnlockStateManager.get().syncFor(player);
+    }
+
+    /**
+     * Like {@link #execute(ServerPlayer)}, but does not sync the unlock states, the caller needs to do that.
+     * Used to run a batch of commands with only one sync, see {@link com.klikli_dev.modonomicon.bookstate.BookCommandQueue}.
+     *
+     * @return false if the command could not be run because it has no uses left.
+     */
+    public boolean run(ServerPlayer player) {
         if (!BookUnlockStateManager.get().canRunFor(player, this)) {
             var failureMessage = this.failureMessage == null ? ModonomiconConstants.I18n.Command.DEFAULT_FAILURE_MESSAGE : this.failureMessage;
 
             player.sendSystemMessage(Component.translatable(failureMessage).withStyle(ChatFormatting.RED));
-            return;
+            return false;
         } else {
             var commandSourceStack = new CommandSourceStack(player, player.position(), player.getRotationVector(), player.serverLevel(), this.permissionLevel, player.getName().getString(), player.getDisplayName(), player.server, player);
 
@@ -138,10 +154,6 @@ public class BookCommand {
                 Modonomicon.LOG.error("Running command [" + this.id.toString() + "] failed: ", e);
             }
         }
-
-        //Even if the command fails we sync the capability.
-        //This allows us to "Pretend" success clientside and disable the command source (button/link/etc) so the player cannot spam-click it.
-        //spam-clicking would not allow abuse anyway, but would lead to error messages sent back to the player.
-        BookUnlockStateManager.get().syncFor(player);
+        return true;
     }
 }
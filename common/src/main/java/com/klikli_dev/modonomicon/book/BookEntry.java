@@ -69,6 +69,13 @@ public class BookEntry {
     protected ResourceLocation commandToRunOnFirstReadId;
     protected BookCommand commandToRunOnFirstRead;
 
+    /**
+     * The index of this entry among the entries of the book, below {@link Book#getEntryCount()}, assigned when the book
+     * is built. -1 if the entry is not part of the book, e.g. because another entry has the same id.
+     */
+    protected int ordinal = -1;
+    protected ResolvedBookEntryParent[] resolvedParents = new ResolvedBookEntryParent[0];
+
     public BookEntry(ResourceLocation id, ResourceLocation categoryId, String name, String description, BookIcon icon, int x, int y, int entryBackgroundUIndex, int entryBackgroundVIndex, boolean hideWhileLocked, boolean showWhenAnyParentUnlocked, BookCondition condition, List<BookEntryParent> parents, List<BookPage> pages, ResourceLocation categoryToOpenId, ResourceLocation commandToRunOnFirstReadId) {
         this.id = id;
         this.categoryId = categoryId;
@@ -198,9 +205,10 @@ public class BookEntry {
         var newParents = new ArrayList<BookEntryParent>();
         for (var parent : this.getParents()) {
             var parentEntry = this.book.getEntry(parent.getEntryId());
-            newParents.add(new ResolvedBookEntryParent(parent, parentEntry));
+            newParents.add(new ResolvedBookEntryParent(parent, parentEntry, this));
         }
         this.parents = newParents;
+        this.resolvedParents = newParents.toArray(new ResolvedBookEntryParent[0]);
 
         if (this.categoryToOpenId != null) {
             this.categoryToOpen = this.book.getCategory(this.categoryToOpenId);
@@ -302,6 +310,17 @@ public class BookEntry {
         return this.parents;
     }
 
+    /**
+     * @return the resolved parents, available after the book is built. Must not be modified.
+     */
+    public ResolvedBookEntryParent[] getResolvedParents() {
+        return this.resolvedParents;
+    }
+
+    public int getOrdinal() {
+        return this.ordinal;
+    }
+
     public String getName() {
         return this.name;
     }
@@ -50,6 +50,10 @@ public class BookEntryParent {
         throw new UnsupportedOperationException("BookEntryParent is not resolved yet.");
     }
 
+    public EntryConnectionShape getConnectionShape() {
+        throw new UnsupportedOperationException("BookEntryParent is not resolved yet.");
+    }
+
     public ResourceLocation getEntryId() {
         return this.entryId;
     }
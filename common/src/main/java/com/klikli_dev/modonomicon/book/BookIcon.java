@@ -9,6 +9,7 @@ package com.klikli_dev.modonomicon.book;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
 import com.klikli_dev.modonomicon.api.ModonomiconConstants;
+import com.klikli_dev.modonomicon.client.render.BookIconAtlas;
 import com.mojang.blaze3d.systems.RenderSystem;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -85,12 +86,24 @@ public class BookIcon {
     public void render(GuiGraphics guiGraphics, int x, int y) {
         if (this.texture != null) {
             RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
+            var region = BookIconAtlas.get().getRegion(this.texture);
+            if (region != null) {
+                guiGraphics.blit(region.atlas(), x, y, 16, 16, region.x(), region.y(), region.width(), region.height(), BookIconAtlas.ATLAS_SIZE, BookIconAtlas.ATLAS_SIZE);
+                return;
+            }
             guiGraphics.blit(this.texture, x, y, 16, 16, 0, 0,this.width, this.height, this.width, this.height);
         } else {
             guiGraphics.renderItem(this.itemStack, x, y);
         }
     }
 
+    /**
+     * @return the texture of the icon, or null if it is an item icon.
+     */
+    public ResourceLocation getTexture() {
+        return this.texture;
+    }
+
     public void toNetwork(FriendlyByteBuf buffer) {
         buffer.writeBoolean(this.texture != null);
         if (this.texture != null) {
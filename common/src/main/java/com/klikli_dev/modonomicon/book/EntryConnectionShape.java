@@ -0,0 +1,44 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.book;
+
+/**
+ * How the connection from a parent entry to its child is drawn in the category screen. Classified once when the book is
+ * built, see {@link ResolvedBookEntryParent}.
+ */
+public enum EntryConnectionShape {
+    /**
+     * The line is disabled, or the parent is in another category.
+     */
+    NONE,
+    VERTICAL_LINE,
+    HORIZONTAL_LINE,
+    SMALL_CURVES,
+    SMALL_CURVES_REVERSED,
+    LARGE_CURVES,
+    LARGE_CURVES_REVERSED;
+
+    public static EntryConnectionShape classify(BookEntry entry, BookEntry parentEntry, BookEntryParent parent) {
+        //only render if line is enabled and if we are in the same category (other category -> other page!)
+        if (!parent.isLineEnabled() || !parentEntry.getCategoryId().equals(entry.getCategoryId()))
+            return NONE;
+
+        int deltaX = Math.abs(entry.getX() - parentEntry.getX());
+        int deltaY = Math.abs(entry.getY() - parentEntry.getY());
+
+        //if the entries are in a line, just draw a line
+        if (deltaX == 0)
+            return VERTICAL_LINE;
+        if (deltaY == 0)
+            return HORIZONTAL_LINE;
+
+        if (deltaX < 2 || deltaY < 2)
+            return parent.isLineReversed() ? SMALL_CURVES_REVERSED : SMALL_CURVES;
+
+        return parent.isLineReversed() ? LARGE_CURVES_REVERSED : LARGE_CURVES;
+    }
+}
@@ -8,17 +8,28 @@ package com.klikli_dev.modonomicon.book;
 
 public class ResolvedBookEntryParent extends BookEntryParent {
     protected BookEntry entry;
+    protected EntryConnectionShape connectionShape;
 
-    public ResolvedBookEntryParent(BookEntryParent unresolved, BookEntry entry) {
+    /**
+     * @param entry the parent entry.
+     * @param child the entry this is a parent of.
+     */
+    public ResolvedBookEntryParent(BookEntryParent unresolved, BookEntry entry, BookEntry child) {
         super(entry.getId());
         this.entry = entry;
         this.drawArrow = unresolved.drawArrow;
         this.lineEnabled = unresolved.lineEnabled;
         this.lineReversed = unresolved.lineReversed;
+        this.connectionShape = EntryConnectionShape.classify(child, entry, this);
     }
 
     @Override
     public BookEntry getEntry() {
         return this.entry;
     }
+
+    @Override
+    public EntryConnectionShape getConnectionShape() {
+        return this.connectionShape;
+    }
 }
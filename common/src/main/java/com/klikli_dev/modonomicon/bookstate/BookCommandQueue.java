@@ -0,0 +1,89 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.bookstate;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Runs the pending first read commands of entries that are read in bulk spread over the following server ticks,
+ * instead of all at once, see {@link BookUnlockStateManager#readAllFor(ServerPlayer, com.klikli_dev.modonomicon.book.Book, boolean)}.
+ * <p>
+ * The pending commands themselves are saved in {@link BookUnlockStates#pendingCommands}, this only keeps track of the
+ * online players that have some. Each player's unlock states are synced once, after the last of their pending commands
+ * has run.
+ */
+public class BookCommandQueue {
+
+    /**
+     * Commands run per tick, over all players.
+     */
+    private static final int COMMANDS_PER_TICK = 4;
+
+    private static final BookCommandQueue instance = new BookCommandQueue();
+
+    /**
+     * Player UUIDs with pending commands. Players that leave are dropped, they are scheduled again when they join.
+     */
+    private final Set<UUID> players = new LinkedHashSet<>();
+
+    public static BookCommandQueue get() {
+        return instance;
+    }
+
+    /**
+     * Schedules the pending commands of the given player to be run.
+     */
+    public void schedule(ServerPlayer player) {
+        this.players.add(player.getUUID());
+    }
+
+    /**
+     * Call at the end of each server tick.
+     */
+    public void onServerTick(MinecraftServer server) {
+        if (this.players.isEmpty())
+            return;
+
+        int budget = COMMANDS_PER_TICK;
+        var iterator = this.players.iterator();
+        while (budget > 0 && iterator.hasNext()) {
+            var player = server.getPlayerList().getPlayer(iterator.next());
+            if (player == null) {
+                iterator.remove();
+                continue;
+            }
+
+            var done = false;
+            while (budget > 0 && !done) {
+                var command = BookUnlockStateManager.get().pollPendingCommandFor(player);
+                if (command != null) {
+                    command.run(player);
+                    budget--;
+                } else {
+                    done = true;
+                }
+            }
+
+            if (done) {
+                iterator.remove();
+                BookUnlockStateManager.get().syncFor(player);
+            }
+        }
+    }
+
+    /**
+     * Forgets all scheduled players, e.g. because the world is unloaded. Their pending commands stay saved.
+     */
+    public void clear() {
+        this.players.clear();
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.bookstate;
+
+import com.klikli_dev.modonomicon.book.Book;
+import com.klikli_dev.modonomicon.book.BookCategory;
+import com.klikli_dev.modonomicon.book.BookEntry;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Counts the unlocked and read entries of one book for one player, in total and per category.
+ * <p>
+ * Counted once from the id sets in {@link BookUnlockStates}, then kept up to date by {@link BookUnlockStates} whenever
+ * an entry is unlocked or read, so unread indicators do not have to scan all entries. Only valid for the book instance
+ * it was counted for, it is counted again after books are reloaded.
+ */
+public class BookUnlockCounters {
+
+    private final Counts total;
+    private final Map<ResourceLocation, Counts> categories;
+    private Book book;
+
+    private BookUnlockCounters(Book book, Counts total, Map<ResourceLocation, Counts> categories) {
+        this.book = book;
+        this.total = total;
+        this.categories = categories;
+    }
+
+    public static BookUnlockCounters count(Book book, Set<ResourceLocation> unlockedEntries, Set<ResourceLocation> readEntries) {
+        var counters = new BookUnlockCounters(book, new Counts(), new HashMap<>());
+        for (var category : book.getCategories().values()) {
+            counters.categories.put(category.getId(), new Counts());
+        }
+
+        for (var entry : book.getEntries().values()) {
+            var unlocked = unlockedEntries.contains(entry.getId());
+            var read = readEntries.contains(entry.getId());
+            counters.total.add(unlocked, read);
+            counters.categories.computeIfAbsent(entry.getCategoryId(), k -> new Counts()).add(unlocked, read);
+        }
+        return counters;
+    }
+
+    public static BookUnlockCounters fromNetwork(FriendlyByteBuf buffer) {
+        var total = Counts.fromNetwork(buffer);
+        var categories = buffer.readMap(HashMap::new, FriendlyByteBuf::readResourceLocation, Counts::fromNetwork);
+        //bound to the client side book when the sync is applied, see #bind
+        return new BookUnlockCounters(null, total, categories);
+    }
+
+    public void toNetwork(FriendlyByteBuf buffer) {
+        this.total.toNetwork(buffer);
+        buffer.writeMap(this.categories, FriendlyByteBuf::writeResourceLocation, (buf, counts) -> counts.toNetwork(buf));
+    }
+
+    public boolean isCountedFor(Book book) {
+        return this.book == book;
+    }
+
+    /**
+     * Binds counters received from the server to the client side book instance.
+     */
+    public void bind(Book book) {
+        this.book = book;
+    }
+
+    /**
+     * @return the counts for the whole book.
+     */
+    public Counts get() {
+        return this.total;
+    }
+
+    /**
+     * @return the counts for the given category, all zero if the category is unknown.
+     */
+    public Counts get(BookCategory category) {
+        return this.categories.getOrDefault(category.getId(), Counts.EMPTY);
+    }
+
+    public void onUnlocked(BookEntry entry, boolean read) {
+        this.total.onUnlocked(read);
+        this.category(entry).onUnlocked(read);
+    }
+
+    public void onRead(BookEntry entry, boolean unlocked) {
+        this.total.onRead(unlocked);
+        this.category(entry).onRead(unlocked);
+    }
+
+    public void onUnread(BookEntry entry, boolean unlocked) {
+        this.total.onUnread(unlocked);
+        this.category(entry).onUnread(unlocked);
+    }
+
+    private Counts category(BookEntry entry) {
+        return this.categories.computeIfAbsent(entry.getCategoryId(), k -> new Counts());
+    }
+
+    public static class Counts {
+        private static final Counts EMPTY = new Counts();
+
+        private int entries;
+        private int unlocked;
+        private int read;
+        private int unreadUnlocked;
+
+        private static Counts fromNetwork(FriendlyByteBuf buffer) {
+            var counts = new Counts();
+            counts.entries = buffer.readVarInt();
+            counts.unlocked = buffer.readVarInt();
+            counts.read = buffer.readVarInt();
+            counts.unreadUnlocked = buffer.readVarInt();
+            return counts;
+        }
+
+        private void toNetwork(FriendlyByteBuf buffer) {
+            buffer.writeVarInt(this.entries);
+            buffer.writeVarInt(this.unlocked);
+            buffer.writeVarInt(this.read);
+            buffer.writeVarInt(this.unreadUnlocked);
+        }
+
+        private void add(boolean unlocked, boolean read) {
+            this.entries++;
+            if (unlocked)
+                this.unlocked++;
+            if (read)
+                this.read++;
+            if (unlocked && !read)
+                this.unreadUnlocked++;
+        }
+
+        private void onUnlocked(boolean read) {
+            this.unlocked++;
+            if (!read)
+                this.unreadUnlocked++;
+        }
+
+        private void onRead(boolean unlocked) {
+            this.read++;
+            if (unlocked)
+                this.unreadUnlocked--;
+        }
+
+        private void onUnread(boolean unlocked) {
+            this.read--;
+            if (unlocked)
+                this.unreadUnlocked++;
+        }
+
+        public int getEntries() {
+            return this.entries;
+        }
+
+        public int getUnlocked() {
+            return this.unlocked;
+        }
+
+        public int getRead() {
+            return this.read;
+        }
+
+        public int getUnreadUnlocked() {
+            return this.unreadUnlocked;
+        }
+
+        /**
+         * @return true if any entry is unread, locked or not.
+         */
+        public boolean hasUnread() {
+            return this.read < this.entries;
+        }
+
+        /**
+         * @return true if any unlocked entry is unread.
+         */
+        public boolean hasUnreadUnlocked() {
+            return this.unreadUnlocked > 0;
+        }
+    }
+}
@@ -57,9 +57,14 @@ public class BookUnlockStateManager {
 
     public void updateAndSyncFor(ServerPlayer player) {
         if (BookDataManager.get().areBooksBuilt()) {
-            this.getStateFor(player).update(player);
+            var state = this.getStateFor(player);
+            state.update(player);
             this.saveData.setDirty();
             this.syncFor(player);
+
+            //e.g. on join, if the player left before all their pending commands ran
+            if (state.hasPendingCommands())
+                BookCommandQueue.get().schedule(player);
         } else {
             //we have some edge cases where RecipesUpdatedEvent is fired after EntityJoinLevelEvent.
             //in SP this means that books are not built yet when updateAndSyncFor is called for the first time.
@@ -107,6 +112,13 @@ public class BookUnlockStateManager {
         return this.getStateFor(player).isRead(entry);
     }
 
+    /**
+     * @return the counters of unlocked and read entries in the given book, for unread indicators.
+     */
+    public BookUnlockCounters getCountersFor(Player player, Book book) {
+        return this.getStateFor(player).getCounters(book);
+    }
+
     public boolean canRunFor(Player player, BookCommand command) {
         return this.getStateFor(player).canRun(command);
     }
@@ -127,6 +139,33 @@ public class BookUnlockStateManager {
         return this.getStateFor(player).read(entry, player);
     }
 
+    /**
+     * Marks all (unlocked) entries in the book as read, then updates and syncs once.
+     * The first read commands of the entries are saved as pending and run over the next ticks, see {@link BookCommandQueue}.
+     *
+     * @param includeLocked true to also read entries that are not unlocked yet.
+     * @return true if any entry was read.
+     */
+    public boolean readAllFor(ServerPlayer player, Book book, boolean includeLocked) {
+        if (!this.getStateFor(player).readAll(book, includeLocked))
+            return false;
+
+        this.updateAndSyncFor(player);
+        return true;
+    }
+
+    /**
+     * Removes the next pending first read command, see {@link BookCommandQueue}.
+     * Modifies state, but does not call syncFor, needs to be done by the caller side if needed.
+     *
+     * @return the command to run, or null if there are none.
+     */
+    public BookCommand pollPendingCommandFor(ServerPlayer player) {
+        var command = this.getStateFor(player).pollPendingCommand();
+        this.saveData.setDirty();
+        return command;
+    }
+
     public void onAdvancement(ServerPlayer player) {
         this.updateAndSyncFor(player);
     }
@@ -36,8 +36,11 @@ public class BookUnlockStates {
             Codecs.concurrentMap(ResourceLocation.CODEC, Codecs.mutableMap(ResourceLocation.CODEC, Codecs.set(Codec.INT))).fieldOf("unlockedPages").forGetter((s) -> s.unlockedPages),
             Codecs.concurrentMap(ResourceLocation.CODEC, Codecs.set(ResourceLocation.CODEC)).fieldOf("unlockedEntries").forGetter((s) -> s.unlockedEntries),
             Codecs.concurrentMap(ResourceLocation.CODEC, Codecs.set(ResourceLocation.CODEC)).fieldOf("unlockedCategories").forGetter((s) -> s.unlockedCategories),
-            Codecs.concurrentMap(ResourceLocation.CODEC, Codecs.mutableMap(ResourceLocation.CODEC, Codec.INT)).fieldOf("usedCommands").forGetter((s) -> s.usedCommands)
-    ).apply(instance, BookUnlockStates::new));
+            Codecs.concurrentMap(ResourceLocation.CODEC, Codecs.mutableMap(ResourceLocation.CODEC, Codec.INT)).fieldOf("usedCommands").forGetter((s) -> s.usedCommands),
+            //optional, for save data from before it was added
+            Codecs.concurrentMap(ResourceLocation.CODEC, Codecs.mutableList(ResourceLocation.CODEC)).optionalFieldOf("pendingCommands").forGetter((s) -> Optional.of(s.pendingCommands))
+    ).apply(instance, (readEntries, unlockedPages, unlockedEntries, unlockedCategories, usedCommands, pendingCommands) ->
+            new BookUnlockStates(readEntries, unlockedPages, unlockedEntries, unlockedCategories, usedCommands, pendingCommands.orElseGet(ConcurrentHashMap::new))));
 
 
     /**
@@ -65,20 +68,33 @@ public class BookUnlockStates {
      */
     public ConcurrentMap<ResourceLocation, Map<ResourceLocation, Integer>> usedCommands;
 
+    /**
+     * Map Book ID to IDs of first read commands that still need to be run, in order. Saved, so the commands are not
+     * lost if the player leaves or the server stops before they ran, see {@link BookCommandQueue}.
+     */
+    public ConcurrentMap<ResourceLocation, List<ResourceLocation>> pendingCommands;
+
+    /**
+     * Map Book ID to counters of unlocked and read entries. Not saved, counted from the sets above on first use.
+     */
+    private final ConcurrentMap<ResourceLocation, BookUnlockCounters> counters = new ConcurrentHashMap<>();
+
     public BookUnlockStates() {
-        this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
     }
 
     public BookUnlockStates(ConcurrentMap<ResourceLocation, Set<ResourceLocation>> readEntries,
                             ConcurrentMap<ResourceLocation, Map<ResourceLocation, Set<Integer>>> unlockedPages,
                             ConcurrentMap<ResourceLocation, Set<ResourceLocation>> unlockedEntries,
                             ConcurrentMap<ResourceLocation, Set<ResourceLocation>> unlockedCategories,
-                            ConcurrentMap<ResourceLocation, Map<ResourceLocation, Integer>> usedCommands) {
+                            ConcurrentMap<ResourceLocation, Map<ResourceLocation, Integer>> usedCommands,
+                            ConcurrentMap<ResourceLocation, List<ResourceLocation>> pendingCommands) {
         this.readEntries = readEntries;
         this.unlockedPages = unlockedPages;
         this.unlockedEntries = unlockedEntries;
         this.unlockedCategories = unlockedCategories;
         this.usedCommands = usedCommands;
+        this.pendingCommands = pendingCommands;
     }
 
     public void update(ServerPlayer owner) {
@@ -115,7 +131,7 @@ public class BookUnlockStates {
                     try {
                         var entryContext = BookConditionContext.of(book, entry);
                         if (entry.getCondition().test(entryContext, owner))
-                            this.unlockedEntries.computeIfAbsent(book.getId(), k -> new HashSet<>()).add(entry.getId());
+                            this.unlock(entry);
                         else if (entry.getCondition().requiresMultiPassUnlockTest())
                             //if the condition is not met AND it requires a multi pass unlock test we store it to test again later
                             //this is because if the condition depends on an unlock that may happen later in the first pass it should unlock this condition alongside
@@ -137,7 +153,7 @@ public class BookUnlockStates {
                                         .computeIfAbsent(entry.getId(), k -> new HashSet<>());
                                 if (!pages.contains(page.getPageNumber())) {
                                      pages.add(page.getPageNumber());
-                                    this.readEntries.computeIfAbsent(book.getId(), k -> new HashSet<>()).remove(entry.getId());
+                                    this.unread(entry);
                                 }
                             } else if (pageCondition.requiresMultiPassUnlockTest()) {
                                 //if the condition is not met AND it requires a multi pass unlock test we store it to test again later
@@ -174,10 +190,10 @@ public class BookUnlockStates {
                                     .computeIfAbsent(pageContext.getEntry().getId(), k -> new HashSet<>());
                             if (!pages.contains(pageContext.getPage().getPageNumber())) {
                                 pages.add(pageContext.getPage().getPageNumber());
-                                this.readEntries.computeIfAbsent(pageContext.getBook().getId(), k -> new HashSet<>()).remove(pageContext.getEntry().getId());
+                                this.unread(pageContext.getEntry());
                             }
                         } else if (condition.getValue() instanceof BookConditionEntryContext entryContext) {
-                            this.unlockedEntries.computeIfAbsent(entryContext.getBook().getId(), k -> new HashSet<>()).add(entryContext.getEntry().getId());
+                            this.unlock(entryContext.getEntry());
                         } else if (condition.getValue() instanceof BookConditionCategoryContext categoryContext) {
                             this.unlockedCategories.computeIfAbsent(categoryContext.getBook().getId(), k -> new HashSet<>()).add(categoryContext.getCategory().getId());
                         }
@@ -200,6 +216,24 @@ public class BookUnlockStates {
         BookErrorManager.get().reset();
     }
 
+    private void unlock(BookEntry entry) {
+        if (this.unlockedEntries.computeIfAbsent(entry.getBook().getId(), k -> new HashSet<>()).add(entry.getId())) {
+            var counters = this.getCountersIfCounted(entry.getBook());
+            if (counters != null)
+                counters.onUnlocked(entry, this.isRead(entry));
+        }
+    }
+
+    /**
+     * Marks the entry as unread again, because new pages were unlocked.
+     */
+    private void unread(BookEntry entry) {
+        if (this.readEntries.computeIfAbsent(entry.getBook().getId(), k -> new HashSet<>()).remove(entry.getId())) {
+            var counters = this.getCountersIfCounted(entry.getBook());
+            if (counters != null)
+                counters.onUnread(entry, this.isUnlocked(entry));
+        }
+    }
 
     /**
      * @return true if entry is now read, false if it was already read before.
@@ -209,6 +243,9 @@ public class BookUnlockStates {
             return false;
 
         this.readEntries.computeIfAbsent(entry.getBook().getId(), k -> new HashSet<>()).add(entry.getId());
+        var counters = this.getCountersIfCounted(entry.getBook());
+        if (counters != null)
+            counters.onRead(entry, this.isUnlocked(entry));
 
         var command = entry.getCommandToRunOnFirstRead();
         if (command != null) {
@@ -218,6 +255,67 @@ public class BookUnlockStates {
         return true;
     }
 
+    /**
+     * Marks all entries in the book as read at once. Unlike {@link #read(BookEntry, ServerPlayer)} this does not run
+     * first read commands, they are added to the pending commands to be run by {@link BookCommandQueue}.
+     *
+     * @param includeLocked true to also read entries that are not unlocked yet.
+     * @return true if any entry was read.
+     */
+    public boolean readAll(Book book, boolean includeLocked) {
+        var readEntries = this.readEntries.computeIfAbsent(book.getId(), k -> new HashSet<>());
+        var unlockedEntries = this.unlockedEntries.getOrDefault(book.getId(), Set.of());
+
+        var newlyRead = new ArrayList<BookEntry>();
+        for (var entry : book.getEntries().values()) {
+            if ((includeLocked || unlockedEntries.contains(entry.getId())) && !readEntries.contains(entry.getId()))
+                newlyRead.add(entry);
+        }
+        if (newlyRead.isEmpty())
+            return false;
+
+        var commands = this.pendingCommands.computeIfAbsent(book.getId(), k -> new ArrayList<>());
+        var counters = this.getCountersIfCounted(book);
+        for (var entry : newlyRead) {
+            readEntries.add(entry.getId());
+            if (counters != null)
+                counters.onRead(entry, unlockedEntries.contains(entry.getId()));
+            if (entry.getCommandToRunOnFirstRead() != null)
+                commands.add(entry.getCommandToRunOnFirstRead().getId());
+        }
+        if (commands.isEmpty())
+            this.pendingCommands.remove(book.getId());
+        return true;
+    }
+
+    public boolean hasPendingCommands() {
+        return !this.pendingCommands.isEmpty();
+    }
+
+    /**
+     * Removes the next pending command. Commands of books or commands that no longer exist are skipped.
+     *
+     * @return the command to run, or null if there are none.
+     */
+    public BookCommand pollPendingCommand() {
+        var iterator = this.pendingCommands.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var pending = iterator.next();
+            var book = BookDataManager.get().getBook(pending.getKey());
+            var commands = pending.getValue();
+            while (!commands.isEmpty()) {
+                var command = book == null ? null : book.getCommand(commands.remove(0));
+                if (command != null) {
+                    if (commands.isEmpty())
+                        iterator.remove();
+                    return command;
+                }
+            }
+            iterator.remove();
+        }
+        return null;
+    }
+
     public void setRun(BookCommand command) {
         if (command.getBook() == null)
             return;
@@ -268,11 +366,64 @@ public class BookUnlockStates {
         return this.unlockedCategories.getOrDefault(category.getBook().getId(), new HashSet<>()).contains(category.getId());
     }
 
+    /**
+     * @return the counters of unlocked and read entries in the given book, counted first if necessary.
+     */
+    public BookUnlockCounters getCounters(Book book) {
+        var counters = this.getCountersIfCounted(book);
+        if (counters == null) {
+            counters = BookUnlockCounters.count(book,
+                    this.unlockedEntries.getOrDefault(book.getId(), Set.of()),
+                    this.readEntries.getOrDefault(book.getId(), Set.of()));
+            this.counters.put(book.getId(), counters);
+        }
+        return counters;
+    }
+
+    /**
+     * @return the counters for the given book if they are counted already, null otherwise. Counters that are not
+     * counted yet do not need to be updated, they will be counted from the current state on first use.
+     */
+    private BookUnlockCounters getCountersIfCounted(Book book) {
+        if (book == null)
+            return null;
+        var counters = this.counters.get(book.getId());
+        return counters != null && counters.isCountedFor(book) ? counters : null;
+    }
+
+    /**
+     * Writes the counters of all loaded books, so clients do not need to count them.
+     */
+    public void writeCounters(FriendlyByteBuf buffer) {
+        var books = BookDataManager.get().getBooks().values();
+        buffer.writeVarInt(books.size());
+        for (var book : books) {
+            buffer.writeResourceLocation(book.getId());
+            this.getCounters(book).toNetwork(buffer);
+        }
+    }
+
+    public void readCounters(FriendlyByteBuf buffer) {
+        var size = buffer.readVarInt();
+        for (var i = 0; i < size; i++) {
+            this.counters.put(buffer.readResourceLocation(), BookUnlockCounters.fromNetwork(buffer));
+        }
+    }
+
+    /**
+     * Binds the counters received from the server to the client side books. Counters for books that are not known
+     * (yet) are counted again on first use.
+     */
+    public void bindCounters() {
+        this.counters.forEach((bookId, counters) -> counters.bind(BookDataManager.get().getBook(bookId)));
+    }
+
     public void reset(Book book) {
         this.readEntries.remove(book.getId());
         this.unlockedPages.remove(book.getId());
         this.unlockedEntries.remove(book.getId());
         this.unlockedCategories.remove(book.getId());
+        this.counters.remove(book.getId());
         //Do not reset the commands!
     }
 
@@ -361,6 +512,7 @@ public class BookUnlockStates {
             this.unlockedEntries.put(bookId, unlockedEntries);
             this.unlockedPages.put(bookId, unlockedPages);
             this.readEntries.put(bookId, readEntries);
+            this.counters.remove(bookId);
 
             return book;
         } catch (Exception e) {
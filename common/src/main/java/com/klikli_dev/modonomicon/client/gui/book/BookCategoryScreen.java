@@ -10,16 +10,24 @@ import com.klikli_dev.modonomicon.api.events.EntryClickedEvent;
 import com.klikli_dev.modonomicon.book.BookCategory;
 import com.klikli_dev.modonomicon.book.BookCategoryBackgroundParallaxLayer;
 import com.klikli_dev.modonomicon.book.BookEntry;
+import com.klikli_dev.modonomicon.book.EntryConnectionShape;
 import com.klikli_dev.modonomicon.book.conditions.context.BookConditionEntryContext;
 import com.klikli_dev.modonomicon.bookstate.BookUnlockStateManager;
 import com.klikli_dev.modonomicon.bookstate.BookVisualStateManager;
 import com.klikli_dev.modonomicon.client.gui.BookGuiManager;
+import com.klikli_dev.modonomicon.client.gui.book.BookDebugOverlay.Phase;
+import com.klikli_dev.modonomicon.client.render.BookIconAtlas;
+import com.klikli_dev.modonomicon.client.render.BookShaders;
+import com.klikli_dev.modonomicon.client.render.GuiQuadBatch;
 import com.klikli_dev.modonomicon.events.ModonomiconEvents;
 import com.klikli_dev.modonomicon.networking.BookEntryReadMessage;
 import com.klikli_dev.modonomicon.networking.SaveCategoryStateMessage;
 import com.klikli_dev.modonomicon.platform.ClientServices;
 import com.klikli_dev.modonomicon.platform.Services;
 import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferUploader;
+import com.mojang.blaze3d.vertex.Tesselator;
+import com.mojang.blaze3d.vertex.VertexFormat;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
@@ -27,8 +35,11 @@ import net.minecraft.client.renderer.GameRenderer;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.Mth;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -41,6 +52,14 @@ public class BookCategoryScreen {
     public static final int ENTRY_HEIGHT = 26;
     public static final int ENTRY_WIDTH = 26;
 
+    private static final String[] PARALLAX_LAYER_UNIFORMS = new String[BookShaders.PARALLAX_BACKGROUND_MAX_LAYERS];
+
+    static {
+        for (int i = 0; i < PARALLAX_LAYER_UNIFORMS.length; i++) {
+            PARALLAX_LAYER_UNIFORMS[i] = "Layer" + i;
+        }
+    }
+
     private final BookOverviewScreen bookOverviewScreen;
     private final BookCategory category;
     private final EntryConnectionRenderer connectionRenderer;
@@ -52,6 +71,15 @@ public class BookCategoryScreen {
 
     private ResourceLocation openEntry;
 
+    /**
+     * Reused every frame by {@link #renderEntries(GuiGraphics, int, int)}.
+     */
+    private final List<VisibleEntry> visibleEntries = new ArrayList<>();
+    /**
+     * Indexed by {@link BookEntry#getOrdinal()}, see {@link #prepareDisplayStates()}.
+     */
+    private EntryDisplayState[] displayStates = new EntryDisplayState[0];
+
     public BookCategoryScreen(BookOverviewScreen bookOverviewScreen, BookCategory category) {
         this.bookOverviewScreen = bookOverviewScreen;
         this.category = category;
@@ -191,6 +219,9 @@ public class BookCategoryScreen {
 
         //note we cannot translate -z here because even -1 immediately pushes us behind the scene -> not visible
         if (!this.category.getBackgroundParallaxLayers().isEmpty()) {
+            if (this.renderBackgroundParallaxLayersComposited(guiGraphics, innerX, innerY, innerWidth, innerHeight, scale, xOffset, yOffset, backgroundWidth, backgroundHeight, backgroundTextureZoomMultiplier))
+                return;
+
             this.category.getBackgroundParallaxLayers().forEach(layer -> {
                 this.renderBackgroundParallaxLayer(guiGraphics, layer, innerX, innerY, innerWidth, innerHeight, this.scrollX, this.scrollY, scale, xOffset, yOffset, this.currentZoom, backgroundWidth, backgroundHeight, backgroundTextureZoomMultiplier);
             });
@@ -205,6 +236,61 @@ public class BookCategoryScreen {
         }
     }
 
+    /**
+     * Draws all visible parallax layers in one pass with {@link BookShaders#getParallaxBackground()}, instead of one
+     * full size blit per layer. Uses the same texture coordinates as {@link #renderBackgroundParallaxLayer}.
+     *
+     * @return false if the layers could not be composited, e.g. because there are too many, and need to be drawn one by one.
+     */
+    private boolean renderBackgroundParallaxLayersComposited(GuiGraphics guiGraphics, int x, int y, int width, int height, float parallax, float xOffset, float yOffset, int backgroundWidth, int backgroundHeight, float backgroundTextureZoomMultiplier) {
+        var shader = BookShaders.getParallaxBackground();
+        if (shader == null)
+            return false;
+
+        var layers = this.category.getBackgroundParallaxLayers();
+        int visibleLayers = 0;
+        for (var layer : layers) {
+            if (layer.getVanishZoom() == -1 || layer.getVanishZoom() > this.currentZoom)
+                visibleLayers++;
+        }
+        if (visibleLayers > BookShaders.PARALLAX_BACKGROUND_MAX_LAYERS)
+            return false;
+
+        //switched, like in renderBackgroundParallaxLayer
+        float textureWidth = (int) (backgroundHeight * backgroundTextureZoomMultiplier);
+        float textureHeight = (int) (backgroundWidth * backgroundTextureZoomMultiplier);
+
+        int index = 0;
+        for (var layer : layers) {
+            if (layer.getVanishZoom() != -1 && layer.getVanishZoom() <= this.currentZoom)
+                continue;
+
+            float parallax1 = parallax / layer.getSpeed();
+            float u = (this.scrollX + MAX_SCROLL) / parallax1 + xOffset;
+            float v = (this.scrollY + MAX_SCROLL) / parallax1 + yOffset;
+            RenderSystem.setShaderTexture(index, layer.getBackground());
+            shader.safeGetUniform(PARALLAX_LAYER_UNIFORMS[index]).set(u / textureWidth, v / textureHeight, width / textureWidth, height / textureHeight);
+            index++;
+        }
+        shader.safeGetUniform("LayerCount").set(visibleLayers);
+
+        RenderSystem.setShader(() -> shader);
+        var matrix = guiGraphics.pose().last().pose();
+        var builder = Tesselator.getInstance().getBuilder();
+        builder.begin(VertexFormat.Mode.QUADS, BookShaders.PARALLAX_BACKGROUND_FORMAT);
+        builder.vertex(matrix, x, y, 0).uv(0, 0).endVertex();
+        builder.vertex(matrix, x, y + height, 0).uv(0, 1).endVertex();
+        builder.vertex(matrix, x + width, y + height, 0).uv(1, 1).endVertex();
+        builder.vertex(matrix, x + width, y, 0).uv(1, 0).endVertex();
+        BufferUploader.drawWithShader(builder.end());
+
+        //the samplers above 0 are not reset by vanilla rendering
+        for (int i = 1; i < index; i++) {
+            RenderSystem.setShaderTexture(i, 0);
+        }
+        return true;
+    }
+
     public void renderBackgroundParallaxLayer(GuiGraphics guiGraphics, BookCategoryBackgroundParallaxLayer layer, int x, int y, int width, int height, float scrollX, float scrollY, float parallax, float xOffset, float yOffset, float zoom, int backgroundWidth, int backgroundHeight, float backgroundTextureZoomMultiplier) {
         float parallax1 = parallax / layer.getSpeed();
         RenderSystem.setShaderTexture(0, layer.getBackground());
@@ -227,7 +313,7 @@ public class BookCategoryScreen {
 
         var anyParentsUnlocked = false;
         var allParentsUnlocked = true;
-        for (var parent : entry.getParents()) {
+        for (var parent : entry.getResolvedParents()) {
             if (!BookUnlockStateManager.get().isUnlockedFor(player, parent.getEntry())) {
                 allParentsUnlocked = false;
             } else {
@@ -247,97 +333,158 @@ public class BookCategoryScreen {
         return EntryDisplayState.UNLOCKED;
     }
 
+    /**
+     * Computes the display states of the entries in this category once per frame, for the entries themselves and for
+     * the connections to their parents.
+     */
+    private void prepareDisplayStates() {
+        var book = this.category.getBook();
+        if (this.displayStates.length != book.getEntryCount()) {
+            this.displayStates = new EntryDisplayState[book.getEntryCount()];
+        } else {
+            Arrays.fill(this.displayStates, null);
+        }
+
+        for (var entry : this.category.getEntries().values()) {
+            int ordinal = entry.getOrdinal();
+            if (ordinal >= 0) {
+                this.displayStates[ordinal] = this.getEntryDisplayState(entry);
+            }
+        }
+    }
+
+    /**
+     * @return the display state from {@link #prepareDisplayStates()}, or computes it for entries of other categories.
+     */
+    private EntryDisplayState getCachedEntryDisplayState(BookEntry entry) {
+        int ordinal = entry.getOrdinal();
+        if (ordinal >= 0 && ordinal < this.displayStates.length && this.displayStates[ordinal] != null)
+            return this.displayStates[ordinal];
+        return this.getEntryDisplayState(entry);
+    }
+
     private void renderEntries(GuiGraphics guiGraphics, int mouseX, int mouseY) {
         RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
-        RenderSystem.setShader(GameRenderer::getPositionTexShader);
 
         //calculate the render offset
         float xOffset = this.getXOffset();
         float yOffset = this.getYOffset();
 
-        guiGraphics.pose().pushPose();
-        guiGraphics.pose().scale(this.currentZoom, this.currentZoom, 1.0f);
+        var debugOverlay = BookDebugOverlay.get();
+        debugOverlay.begin(Phase.ENTRIES);
 
+        var visibleEntries = this.visibleEntries;
+        visibleEntries.clear();
+        this.prepareDisplayStates();
         for (var entry : this.category.getEntries().values()) {
-            var displayState = this.getEntryDisplayState(entry);
-            var isHovered = this.isEntryHovered(entry, xOffset, yOffset, mouseX, mouseY);
-
+            var displayState = this.getCachedEntryDisplayState(entry);
             if (displayState == EntryDisplayState.HIDDEN)
                 continue;
 
-            int texX = entry.getEntryBackgroundVIndex() * ENTRY_HEIGHT;
-            int texY = entry.getEntryBackgroundUIndex() * ENTRY_WIDTH;
+            var isHovered = this.isEntryHovered(entry, xOffset, yOffset, mouseX, mouseY);
+            var isUnread = displayState == EntryDisplayState.UNLOCKED && !BookUnlockStateManager.get().isReadFor(this.bookOverviewScreen.getMinecraft().player, entry);
+            visibleEntries.add(new VisibleEntry(entry, displayState, isHovered, isUnread));
+        }
 
-            guiGraphics.pose().pushPose();
-            //we translate instead of applying the offset to the entry x/y to avoid jittering when moving
-            guiGraphics.pose().translate(xOffset, yOffset, 0);
+        guiGraphics.pose().pushPose();
+        guiGraphics.pose().scale(this.currentZoom, this.currentZoom, 1.0f);
 
+        guiGraphics.pose().pushPose();
+        //we translate instead of applying the offset to the entry x/y to avoid jittering when moving
+        guiGraphics.pose().translate(xOffset, yOffset, 0);
 
-            //we apply a z offset to push the entries before the connection arrows
-            guiGraphics.pose().translate(0, 0, 10);
+        //we apply a z offset to push the entries before the connection arrows
+        guiGraphics.pose().translate(0, 0, 10);
 
-            //As of 1.20 this is not necessary, in fact it causes the entry to render behind the bg
-            //guiGraphics.pose().translate(0, 0, -10); //push the whole entry behind the frame
+        //As of 1.20 this is not necessary, in fact it causes the entry to render behind the bg
+        //guiGraphics.pose().translate(0, 0, -10); //push the whole entry behind the frame
 
+        //Each layer is drawn for all entries at once, one draw call per texture instead of several per entry.
 
-            if (displayState == EntryDisplayState.LOCKED) {
-                //Draw locked entries greyed out
-                RenderSystem.setShaderColor(0.2F, 0.2F, 0.2F, 1.0F);
-            } else if (isHovered) {
-                //Draw hovered entries slightly greyed out
-                RenderSystem.setShaderColor(0.8F, 0.8F, 0.8F, 1.0F);
+        //render entry backgrounds
+        var backgrounds = GuiQuadBatch.begin(guiGraphics, this.category.getEntryTextures(), 256, 256);
+        for (var visible : visibleEntries) {
+            var entry = visible.entry();
+            float brightness = visible.getBrightness();
+            int texX = entry.getEntryBackgroundVIndex() * ENTRY_HEIGHT;
+            int texY = entry.getEntryBackgroundUIndex() * ENTRY_WIDTH;
+            backgrounds.blit(entry.getX() * ENTRY_GRID_SCALE + ENTRY_GAP, entry.getY() * ENTRY_GRID_SCALE + ENTRY_GAP, ENTRY_WIDTH, ENTRY_HEIGHT,
+                    texX, texY, ENTRY_WIDTH, ENTRY_HEIGHT, brightness, brightness, brightness, 1.0F);
+        }
+        backgrounds.draw();
+
+        //render texture icons stitched into the icon atlas
+        for (var atlas : BookIconAtlas.get().getAtlases()) {
+            var icons = GuiQuadBatch.begin(guiGraphics, atlas, BookIconAtlas.ATLAS_SIZE, BookIconAtlas.ATLAS_SIZE);
+            for (var visible : visibleEntries) {
+                var region = this.getAtlasRegion(visible.entry());
+                if (region != null && region.atlas().equals(atlas)) {
+                    //texture icons are not greyed out, see BookIcon#render
+                    icons.quad(visible.entry().getX() * ENTRY_GRID_SCALE + ENTRY_GAP + 5, visible.entry().getY() * ENTRY_GRID_SCALE + ENTRY_GAP + 5, 16, 16,
+                            region.u0(), region.v0(), region.u1(), region.v1(), 1.0F, 1.0F, 1.0F, 1.0F);
+                }
             }
-            //render entry background
-            guiGraphics.blit(this.category.getEntryTextures(), entry.getX() * ENTRY_GRID_SCALE + ENTRY_GAP, entry.getY() * ENTRY_GRID_SCALE + ENTRY_GAP, texX, texY, ENTRY_WIDTH, ENTRY_HEIGHT);
+            icons.draw();
+        }
 
-            guiGraphics.pose().pushPose();
+        //render all other icons one by one
+        for (var visible : visibleEntries) {
+            if (this.getAtlasRegion(visible.entry()) != null)
+                continue;
 
-            //render icon
-            entry.getIcon().render(guiGraphics, entry.getX() * ENTRY_GRID_SCALE + ENTRY_GAP + 5, entry.getY() * ENTRY_GRID_SCALE + ENTRY_GAP + 5);
+            float brightness = visible.getBrightness();
+            RenderSystem.setShaderColor(brightness, brightness, brightness, 1.0F);
+            visible.entry().getIcon().render(guiGraphics, visible.entry().getX() * ENTRY_GRID_SCALE + ENTRY_GAP + 5, visible.entry().getY() * ENTRY_GRID_SCALE + ENTRY_GAP + 5);
+        }
+        //reset color to avoid greyed out carrying over
+        RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
 
-            guiGraphics.pose().popPose();
+        //render unread icons
+        RenderSystem.enableDepthTest();
+        guiGraphics.pose().pushPose();
+        guiGraphics.pose().translate(0, 0, 11); //and push the unread icon in front of the background and icon (they are at Z 10)
+        var unreadMarkers = GuiQuadBatch.begin(guiGraphics, this.bookOverviewScreen.getBook().getBookContentTexture(), 512, 256);
+        for (var visible : visibleEntries) {
+            if (!visible.isUnread())
+                continue;
 
-            //render unread icon
-            if (displayState == EntryDisplayState.UNLOCKED && !BookUnlockStateManager.get().isReadFor(this.bookOverviewScreen.getMinecraft().player, entry)) {
-                final int U = 350;
-                final int V = 19;
-                final int width = 11;
-                final int height = 11;
-
-                RenderSystem.setShader(GameRenderer::getPositionTexShader);
-                //RenderSystem.setShaderColor(1F, 1F, 1F, 1F);
-
-                RenderSystem.enableBlend();
-                RenderSystem.defaultBlendFunc();
-                RenderSystem.enableDepthTest();
-
-                //testing
-                guiGraphics.pose().pushPose();
-                guiGraphics.pose().translate(0, 0, 11); //and push the unread icon in front of the background and icon (they are at Z 10)
-                //if focused we go to the right of our normal button (instead of down, like mc buttons do)
-                BookContentScreen.drawFromTexture(guiGraphics, this.bookOverviewScreen.getBook(),
-                        entry.getX() * ENTRY_GRID_SCALE + ENTRY_GAP + 16 + 2,
-                        entry.getY() * ENTRY_GRID_SCALE + ENTRY_GAP - 2, U + (isHovered ? width : 0), V, width, height);
-                guiGraphics.pose().popPose();
-            }
+            final int U = 350;
+            final int V = 19;
+            final int width = 11;
+            final int height = 11;
 
-            guiGraphics.pose().popPose();
+            //if focused we go to the right of our normal button (instead of down, like mc buttons do)
+            unreadMarkers.blit(visible.entry().getX() * ENTRY_GRID_SCALE + ENTRY_GAP + 16 + 2, visible.entry().getY() * ENTRY_GRID_SCALE + ENTRY_GAP - 2, width, height,
+                    U + (visible.isHovered() ? width : 0), V, width, height, 1.0F, 1.0F, 1.0F, 1.0F);
+        }
+        unreadMarkers.draw();
+        guiGraphics.pose().popPose();
 
-            //reset color to avoid greyed out carrying over
-            RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
+        guiGraphics.pose().popPose();
+        debugOverlay.end(Phase.ENTRIES);
 
-            this.renderConnections(guiGraphics, entry, xOffset, yOffset);
+        debugOverlay.begin(Phase.CONNECTIONS);
+        for (var visible : visibleEntries) {
+            this.renderConnections(guiGraphics, visible.entry(), xOffset, yOffset);
         }
+        debugOverlay.end(Phase.CONNECTIONS);
         guiGraphics.pose().popPose();
     }
 
+    @Nullable
+    private BookIconAtlas.Region getAtlasRegion(BookEntry entry) {
+        var texture = entry.getIcon().getTexture();
+        return texture == null ? null : BookIconAtlas.get().getRegion(texture);
+    }
+
     public void renderEntryTooltips(GuiGraphics guiGraphics, int mouseX, int mouseY, float partialTicks) {
         //calculate the render offset
         float xOffset = this.getXOffset();
         float yOffset = this.getYOffset();
 
+        //rendered after the entries in the same frame, so the display states are still current
         for (var entry : this.category.getEntries().values()) {
-            var displayState = this.getEntryDisplayState(entry);
+            var displayState = this.getCachedEntryDisplayState(entry);
             if (displayState == EntryDisplayState.HIDDEN)
                 continue;
 
@@ -385,8 +532,11 @@ public class BookCategoryScreen {
         //our arrows are aliased and need blending
         RenderSystem.enableBlend();
 
-        for (var parent : entry.getParents()) {
-            var parentDisplayState = this.getEntryDisplayState(parent.getEntry());
+        for (var parent : entry.getResolvedParents()) {
+            if (parent.getConnectionShape() == EntryConnectionShape.NONE)
+                continue;
+
+            var parentDisplayState = this.getCachedEntryDisplayState(parent.getEntry());
             if (parentDisplayState == EntryDisplayState.HIDDEN)
                 continue;
 
@@ -436,4 +586,15 @@ public class BookCategoryScreen {
     public void onCloseEntry(BookContentScreen screen) {
         this.openEntry = null;
     }
+
+    private record VisibleEntry(BookEntry entry, EntryDisplayState displayState, boolean isHovered, boolean isUnread) {
+        /**
+         * Locked entries are drawn greyed out, hovered entries slightly greyed out.
+         */
+        public float getBrightness() {
+            if (this.displayState == EntryDisplayState.LOCKED)
+                return 0.2F;
+            return this.isHovered ? 0.8F : 1.0F;
+        }
+    }
 }
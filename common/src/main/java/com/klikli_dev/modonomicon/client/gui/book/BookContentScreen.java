@@ -9,16 +9,22 @@ package com.klikli_dev.modonomicon.client.gui.book;
 import com.klikli_dev.modonomicon.Modonomicon;
 import com.klikli_dev.modonomicon.api.ModonomiconConstants.I18n.Gui;
 import com.klikli_dev.modonomicon.book.*;
+import com.klikli_dev.modonomicon.book.page.BookEntityPage;
+import com.klikli_dev.modonomicon.book.page.BookImagePage;
 import com.klikli_dev.modonomicon.book.page.BookPage;
 import com.klikli_dev.modonomicon.bookstate.BookUnlockStateManager;
 import com.klikli_dev.modonomicon.bookstate.BookVisualStateManager;
 import com.klikli_dev.modonomicon.client.ClientTicks;
 import com.klikli_dev.modonomicon.client.gui.BookGuiManager;
+import com.klikli_dev.modonomicon.client.gui.book.BookDebugOverlay.Phase;
 import com.klikli_dev.modonomicon.client.gui.book.button.ArrowButton;
 import com.klikli_dev.modonomicon.client.gui.book.button.BackButton;
 import com.klikli_dev.modonomicon.client.gui.book.button.ExitButton;
 import com.klikli_dev.modonomicon.client.gui.book.markdown.ItemLinkRenderer;
+import com.klikli_dev.modonomicon.client.render.page.BookEntityPagePool;
+import com.klikli_dev.modonomicon.client.render.page.BookImageTextureCache;
 import com.klikli_dev.modonomicon.client.render.page.BookPageRenderer;
+import com.klikli_dev.modonomicon.client.render.page.DisplayStackCache;
 import com.klikli_dev.modonomicon.client.render.page.PageRendererRegistry;
 import com.klikli_dev.modonomicon.data.BookDataManager;
 import com.klikli_dev.modonomicon.fluid.FluidHolder;
@@ -32,6 +38,7 @@ import com.klikli_dev.modonomicon.util.ItemStackUtil;
 import com.mojang.blaze3d.platform.InputConstants;
 import com.mojang.blaze3d.systems.RenderSystem;
 import net.minecraft.ChatFormatting;
+import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
@@ -52,9 +59,12 @@ import net.minecraft.world.item.crafting.Ingredient;
 import org.jetbrains.annotations.Nullable;
 import org.lwjgl.glfw.GLFW;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class BookContentScreen extends Screen implements BookScreenWithButtons {
 
@@ -84,6 +94,10 @@ public class BookContentScreen extends Screen implements BookScreenWithButtons {
     private BookPage rightPage;
     private BookPageRenderer<?> leftPageRenderer;
     private BookPageRenderer<?> rightPageRenderer;
+    /**
+     * Renderers for the pages of the previous and next spread, prepared in the background.
+     */
+    private final Map<BookPage, CompletableFuture<BookPageRenderer<?>>> preparedPageRenderers = new IdentityHashMap<>();
     private int bookLeft;
     private int bookTop;
     /**
@@ -257,11 +271,21 @@ public class BookContentScreen extends Screen implements BookScreenWithButtons {
     }
 
     public void renderIngredient(GuiGraphics guiGraphics, int x, int y, int mouseX, int mouseY, Ingredient ingr) {
-        this.renderItemStacks(guiGraphics, x, y, mouseX, mouseY, Arrays.asList(ingr.getItems()), -1);
+        this.renderItemStacks(guiGraphics, x, y, mouseX, mouseY, DisplayStackCache.get().getItems(ingr), -1);
     }
 
     public void renderIngredient(GuiGraphics guiGraphics, int x, int y, int mouseX, int mouseY, Ingredient ingr, int countOverride) {
-        this.renderItemStacks(guiGraphics, x, y, mouseX, mouseY, Arrays.asList(ingr.getItems()), countOverride);
+        this.renderItemStacks(guiGraphics, x, y, mouseX, mouseY, DisplayStackCache.get().getItems(ingr), countOverride);
+    }
+
+    /**
+     * Cycles through the cached stacks of an ingredient, see {@link DisplayStackCache}.
+     */
+    private void renderItemStacks(GuiGraphics guiGraphics, int x, int y, int mouseX, int mouseY, ItemStack[] filteredStacks, int countOverride) {
+        if (filteredStacks.length > 0) {
+            var currentStack = filteredStacks[(this.ticksInBook / 20) % filteredStacks.length];
+            this.renderItemStack(guiGraphics, x, y, mouseX, mouseY, countOverride > 0 ? currentStack.copyWithCount(countOverride) : currentStack);
+        }
     }
 
     public void renderFluidStack(GuiGraphics guiGraphics, int x, int y, int mouseX, int mouseY, FluidHolder stack) {
@@ -451,17 +475,80 @@ public class BookContentScreen extends Screen implements BookScreenWithButtons {
 
         //allow pages to prepare for being displayed
         if (this.leftPage != null) {
-            this.leftPageRenderer = PageRendererRegistry.getPageRenderer(this.leftPage.getType()).create(this.leftPage);
+            this.leftPageRenderer = this.createPageRenderer(this.leftPage);
             this.leftPageRenderer.onBeginDisplayPage(this, LEFT_PAGE_X, TOP_PADDING);
         } else {
             this.leftPageRenderer = null;
         }
         if (this.rightPage != null) {
-            this.rightPageRenderer = PageRendererRegistry.getPageRenderer(this.rightPage.getType()).create(this.rightPage);
+            this.rightPageRenderer = this.createPageRenderer(this.rightPage);
             this.rightPageRenderer.onBeginDisplayPage(this, RIGHT_PAGE_X, TOP_PADDING);
         } else {
             this.rightPageRenderer = null;
         }
+
+        this.preloadNeighbourPages();
+    }
+
+    /**
+     * Uses the renderer prepared in the background, if it is ready, otherwise creates a new one.
+     */
+    protected BookPageRenderer<?> createPageRenderer(BookPage page) {
+        var prepared = this.preparedPageRenderers.remove(page);
+        if (prepared != null && prepared.isDone() && !prepared.isCompletedExceptionally()) {
+            return prepared.join();
+        }
+        if (prepared != null) {
+            //not done yet, it will not be used
+            prepared.cancel(false);
+        }
+        return PageRendererRegistry.getPageRenderer(page.getType()).create(page);
+    }
+
+    /**
+     * Prepares the previous and next spread, so flipping to them does not stall: renderers are created and prepared
+     * in the background, see {@link BookPageRenderer#prepare()}, expensive content that has to be created on the
+     * render thread is scheduled to be loaded over the next client ticks, see
+     * {@link BookEntityPagePool#preload}.
+     */
+    protected void preloadNeighbourPages() {
+        var level = this.minecraft.level;
+        var neighbourPages = new ArrayList<BookPage>();
+        for (int i = Math.max(0, this.openPagesIndex - 2); i < Math.min(this.unlockedPages.size(), this.openPagesIndex + 4); i++) {
+            if (i == this.openPagesIndex || i == this.openPagesIndex + 1) {
+                continue;
+            }
+
+            var page = this.unlockedPages.get(i);
+            neighbourPages.add(page);
+            if (page instanceof BookEntityPage entityPage) {
+                BookEntityPagePool.get().preload(entityPage.getEntityId(), level);
+            } else if (page instanceof BookImagePage imagePage && imagePage.getImages().length > 0) {
+                BookImageTextureCache.get().prefetch(imagePage.getImages()[0]);
+            }
+        }
+
+        //forget pages that are no longer next to the open spread
+        this.preparedPageRenderers.entrySet().removeIf(entry -> {
+            if (!neighbourPages.contains(entry.getKey())) {
+                entry.getValue().cancel(false);
+                return true;
+            }
+            return false;
+        });
+
+        for (var page : neighbourPages) {
+            this.preparedPageRenderers.computeIfAbsent(page, p -> CompletableFuture.supplyAsync(() -> {
+                BookPageRenderer<?> renderer = PageRendererRegistry.getPageRenderer(p.getType()).create(p);
+                renderer.ensurePrepared();
+                return renderer;
+            }, Util.backgroundExecutor()));
+        }
+    }
+
+    protected void clearPreparedPageRenderers() {
+        this.preparedPageRenderers.values().forEach(future -> future.cancel(false));
+        this.preparedPageRenderers.clear();
     }
 
     protected void onPageChanged() {
@@ -494,10 +581,16 @@ public class BookContentScreen extends Screen implements BookScreenWithButtons {
 
     @Override
     public void render(GuiGraphics guiGraphics, int pMouseX, int pMouseY, float pPartialTick) {
+        var debugOverlay = BookDebugOverlay.get();
+        debugOverlay.beginFrame();
+        debugOverlay.setContext(this.entry.getId());
+        debugOverlay.setPageRenderers(this.leftPageRenderer, this.rightPageRenderer);
+
         RenderSystem.disableDepthTest(); //guard against depth test being enabled by other rendering code, that would cause ui elements to vanish
 
         this.resetTooltip();
 
+        debugOverlay.begin(Phase.BACKGROUND);
         //we need to modify blit offset (now: z pose) to not draw over toasts
         guiGraphics.pose().pushPose();
         guiGraphics.pose().translate(0, 0, -1300);  //magic number arrived by testing until toasts show, but BookOverviewScreen does not
@@ -508,18 +601,25 @@ public class BookContentScreen extends Screen implements BookScreenWithButtons {
         guiGraphics.pose().translate(this.bookLeft, this.bookTop, 0);
         renderBookBackground(guiGraphics, this.bookContentTexture);
         guiGraphics.pose().popPose();
+        debugOverlay.end(Phase.BACKGROUND);
 
+        debugOverlay.begin(Phase.PAGE_RENDERER);
         guiGraphics.pose().pushPose();
         guiGraphics.pose().translate(this.bookLeft, this.bookTop, 0);
         this.renderPage(guiGraphics, this.leftPageRenderer, pMouseX, pMouseY, pPartialTick);
         this.renderPage(guiGraphics, this.rightPageRenderer, pMouseX, pMouseY, pPartialTick);
         guiGraphics.pose().popPose();
+        debugOverlay.end(Phase.PAGE_RENDERER);
 
         //do not translate super (= widget rendering) -> otherwise our buttons are messed up
         super.render(guiGraphics, pMouseX, pMouseY, pPartialTick);
 
         //do not translate tooltip, would mess up location
+        debugOverlay.begin(Phase.TOOLTIPS);
         this.drawTooltip(guiGraphics, pMouseX, pMouseY);
+        debugOverlay.end(Phase.TOOLTIPS);
+
+        debugOverlay.endFrame(this, guiGraphics);
     }
 
     @Override
@@ -546,6 +646,21 @@ public class BookContentScreen extends Screen implements BookScreenWithButtons {
         }
     }
 
+    @Override
+    public void removed() {
+        super.removed();
+
+        this.clearPreparedPageRenderers();
+
+        //allow pages to free resources (e.g. baked multiblock vertex buffers), init() will set them up again if we return to this screen
+        if (this.leftPageRenderer != null) {
+            this.leftPageRenderer.onEndDisplayPage(this);
+        }
+        if (this.rightPageRenderer != null) {
+            this.rightPageRenderer.onEndDisplayPage(this);
+        }
+    }
+
     /**
      * Make public to access from pages
      */
@@ -907,6 +1022,10 @@ public class BookContentScreen extends Screen implements BookScreenWithButtons {
 
     @Override
     public boolean keyPressed(int keyCode, int scanCode, int modifiers) {
+        if (BookDebugOverlay.get().keyPressed(keyCode, modifiers)) {
+            return true;
+        }
+
         if (keyCode == GLFW.GLFW_KEY_BACKSPACE) {
             this.back();
             return true;
@@ -0,0 +1,374 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.client.gui.book;
+
+import com.klikli_dev.modonomicon.Modonomicon;
+import com.klikli_dev.modonomicon.api.ModonomiconConstants.I18n.Gui;
+import com.klikli_dev.modonomicon.platform.ClientServices;
+import net.minecraft.ChatFormatting;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.network.chat.ClickEvent;
+import net.minecraft.network.chat.Component;
+import org.lwjgl.glfw.GLFW;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures how long book screens take to render, split by {@link Phase}, how many draw calls they issue and how much
+ * they allocate, and shows it on top of the screen. The recorded frames can be exported as CSV, to attach them to bug
+ * reports.
+ * <p>
+ * Shown if enabled in the client config, or toggled with {@link #TOGGLE_KEY} in a book. Nothing is measured while it
+ * is hidden.
+ * <p>
+ * Screens shown below the current one (e.g. the overview below an entry) count towards the same frame.
+ */
+public class BookDebugOverlay {
+
+    public static final int TOGGLE_KEY = GLFW.GLFW_KEY_F7;
+
+    /**
+     * About ten seconds at 60 fps.
+     */
+    private static final int HISTORY_SIZE = 600;
+    /**
+     * The number of frames the overlay averages over.
+     */
+    private static final int AVERAGE_FRAMES = 60;
+
+    /**
+     * A frame that was not ended by then, e.g. because the screen closed while rendering, is started over.
+     */
+    private static final long STALE_FRAME_NANOS = 1_000_000_000L;
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private static final BookDebugOverlay instance = new BookDebugOverlay();
+
+    /**
+     * Null if the JVM cannot measure allocations per thread.
+     */
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    /**
+     * Allocation measuring costs a little on every allocation of every thread, so it is only turned on once the overlay
+     * is first shown.
+     */
+    private boolean allocationMeasuringEnabled;
+
+    private final Frame[] history = new Frame[HISTORY_SIZE];
+    private int historyCount;
+    private long frameCount;
+
+    /**
+     * Null to follow the client config.
+     */
+    private Boolean visible;
+
+    private boolean inFrame;
+    private Frame current;
+    private long frameStartAllocatedBytes;
+    private final long[] phaseStartNanos = new long[PHASES.length];
+    private final int[] phaseDepth = new int[PHASES.length];
+
+    private BookDebugOverlay() {
+        var bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+            this.threadMXBean = sunBean;
+        } else {
+            this.threadMXBean = null;
+        }
+
+        for (int i = 0; i < this.history.length; i++) {
+            this.history[i] = new Frame();
+        }
+    }
+
+    public static BookDebugOverlay get() {
+        return instance;
+    }
+
+    private static String formatMillis(double nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    private static String nameOf(Class<?> type) {
+        return type == null ? "" : type.getSimpleName();
+    }
+
+    public boolean isVisible() {
+        return this.visible != null ? this.visible : ClientServices.CLIENT_CONFIG.enableBookDebugOverlay();
+    }
+
+    /**
+     * @return true if frames are measured right now. Use to skip collecting information only the overlay needs.
+     */
+    public boolean isRecording() {
+        return this.inFrame;
+    }
+
+    /**
+     * Handles the overlay keys, to be called first in keyPressed of book screens.
+     *
+     * @return true if the key was handled.
+     */
+    public boolean keyPressed(int keyCode, int modifiers) {
+        if (keyCode != TOGGLE_KEY)
+            return false;
+
+        if ((modifiers & GLFW.GLFW_MOD_CONTROL) != 0) {
+            this.exportCsv();
+        } else {
+            this.visible = !this.isVisible();
+            this.inFrame = false;
+        }
+        return true;
+    }
+
+    /**
+     * To be called first in render of book screens.
+     */
+    public void beginFrame() {
+        if (this.inFrame && Util.getNanos() - this.current.startNanos < STALE_FRAME_NANOS)
+            return;
+        if (!this.isVisible())
+            return;
+
+        if (!this.allocationMeasuringEnabled && this.threadMXBean != null) {
+            this.threadMXBean.setThreadAllocatedMemoryEnabled(true);
+            this.allocationMeasuringEnabled = true;
+        }
+
+        this.inFrame = true;
+        this.current = this.history[(int) (this.frameCount % HISTORY_SIZE)];
+        this.current.reset();
+        this.current.timestampMillis = Util.getEpochMillis();
+        this.current.startNanos = Util.getNanos();
+        this.frameStartAllocatedBytes = this.getAllocatedBytes();
+        Arrays.fill(this.phaseDepth, 0);
+    }
+
+    /**
+     * To be called last in render of book screens. Only the screen that is currently shown ends the frame and renders
+     * the overlay.
+     */
+    public void endFrame(Screen screen, GuiGraphics guiGraphics) {
+        if (!this.inFrame || Minecraft.getInstance().screen != screen)
+            return;
+
+        this.current.allocatedBytes = this.threadMXBean == null ? -1 : this.getAllocatedBytes() - this.frameStartAllocatedBytes;
+        this.current.totalNanos = Util.getNanos() - this.current.startNanos;
+        this.current.screen = screen.getClass();
+        this.inFrame = false;
+
+        this.frameCount++;
+        this.historyCount = Math.min(this.historyCount + 1, HISTORY_SIZE);
+
+        this.render(guiGraphics);
+    }
+
+    public void begin(Phase phase) {
+        if (this.inFrame && this.phaseDepth[phase.ordinal()]++ == 0) {
+            this.phaseStartNanos[phase.ordinal()] = Util.getNanos();
+        }
+    }
+
+    public void end(Phase phase) {
+        if (this.inFrame && this.phaseDepth[phase.ordinal()] > 0 && --this.phaseDepth[phase.ordinal()] == 0) {
+            this.current.phaseNanos[phase.ordinal()] += Util.getNanos() - this.phaseStartNanos[phase.ordinal()];
+        }
+    }
+
+    /**
+     * Called for every draw call the client issues, see MixinVertexBuffer.
+     */
+    public void onDrawCall() {
+        if (this.inFrame) {
+            this.current.drawCalls++;
+        }
+    }
+
+    /**
+     * @param context what is shown, e.g. the id of the category or entry.
+     */
+    public void setContext(Object context) {
+        if (this.inFrame) {
+            this.current.context = context;
+        }
+    }
+
+    public void setPageRenderers(Object left, Object right) {
+        if (this.inFrame) {
+            this.current.leftPageRenderer = left == null ? null : left.getClass();
+            this.current.rightPageRenderer = right == null ? null : right.getClass();
+        }
+    }
+
+    private long getAllocatedBytes() {
+        return this.threadMXBean == null ? 0 : this.threadMXBean.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * @return the recorded frames, oldest first.
+     */
+    private List<Frame> getHistory(int maxFrames) {
+        int count = Math.min(maxFrames, this.historyCount);
+        var frames = new ArrayList<Frame>(count);
+        for (long i = this.frameCount - count; i < this.frameCount; i++) {
+            frames.add(this.history[(int) (i % HISTORY_SIZE)]);
+        }
+        return frames;
+    }
+
+    private void render(GuiGraphics guiGraphics) {
+        var frames = this.getHistory(AVERAGE_FRAMES);
+        var last = frames.get(frames.size() - 1);
+
+        long totalNanos = 0;
+        long[] phaseNanos = new long[PHASES.length];
+        long drawCalls = 0;
+        long allocatedBytes = 0;
+        for (var frame : frames) {
+            totalNanos += frame.totalNanos;
+            for (int i = 0; i < PHASES.length; i++) {
+                phaseNanos[i] += frame.phaseNanos[i];
+            }
+            drawCalls += frame.drawCalls;
+            allocatedBytes += frame.allocatedBytes;
+        }
+        int count = frames.size();
+        //wall clock time from the first to the last frame, to get the allocation rate
+        long elapsedNanos = last.startNanos - frames.get(0).startNanos;
+
+        var lines = new ArrayList<String>();
+        lines.add("Modonomicon " + nameOf(last.screen) + (last.context != null ? " " + last.context : ""));
+        lines.add("CPU: " + formatMillis(totalNanos / (double) count) + " ms (avg of " + count + " frames)");
+        for (int i = 0; i < PHASES.length; i++) {
+            lines.add("  " + PHASES[i].getName() + ": " + formatMillis(phaseNanos[i] / (double) count) + " ms");
+        }
+        lines.add("Draw calls: " + last.drawCalls + " (avg " + drawCalls / count + ")");
+        if (this.threadMXBean == null) {
+            lines.add("Allocation: not supported by this JVM");
+        } else if (elapsedNanos > 0) {
+            //the last frame is not part of the elapsed time
+            double bytesPerSecond = (allocatedBytes - last.allocatedBytes) / (elapsedNanos / 1_000_000_000.0);
+            lines.add("Allocation: " + String.format(Locale.ROOT, "%.2f", bytesPerSecond / (1024 * 1024)) + " MB/s");
+        }
+        if (last.leftPageRenderer != null || last.rightPageRenderer != null) {
+            lines.add("Pages: " + nameOf(last.leftPageRenderer) + " | " + nameOf(last.rightPageRenderer));
+        }
+        lines.add("F7: hide, Ctrl+F7: export CSV");
+
+        var font = Minecraft.getInstance().font;
+        guiGraphics.pose().pushPose();
+        guiGraphics.pose().translate(0, 0, 500); //above tooltips
+        int y = 2;
+        for (var line : lines) {
+            //like the vanilla debug screen
+            guiGraphics.fill(1, y - 1, 2 + font.width(line) + 1, y + font.lineHeight - 1, 0x90505050);
+            guiGraphics.drawString(font, line, 2, y, 0xE0E0E0, false);
+            y += font.lineHeight;
+        }
+        guiGraphics.pose().popPose();
+    }
+
+    private void exportCsv() {
+        var minecraft = Minecraft.getInstance();
+        var path = minecraft.gameDirectory.toPath().resolve("debug").resolve("modonomicon-book-frames-" + Util.getFilenameFormattedDateTime() + ".csv");
+
+        try {
+            Files.createDirectories(path.getParent());
+            try (var writer = Files.newBufferedWriter(path)) {
+                writer.write("timestamp_ms,screen,context,left_page_renderer,right_page_renderer,cpu_ms");
+                for (var phase : PHASES) {
+                    writer.write("," + phase.getSerializedName() + "_ms");
+                }
+                writer.write(",draw_calls,allocated_bytes");
+                writer.newLine();
+
+                for (var frame : this.getHistory(HISTORY_SIZE)) {
+                    writer.write(frame.timestampMillis + "," + nameOf(frame.screen) + "," + (frame.context != null ? frame.context : "") + ","
+                            + nameOf(frame.leftPageRenderer) + "," + nameOf(frame.rightPageRenderer) + "," + formatMillis(frame.totalNanos));
+                    for (var phaseNanos : frame.phaseNanos) {
+                        writer.write("," + formatMillis(phaseNanos));
+                    }
+                    writer.write("," + frame.drawCalls + "," + frame.allocatedBytes);
+                    writer.newLine();
+                }
+            }
+
+            var fileName = Component.literal(path.getFileName().toString()).withStyle(ChatFormatting.UNDERLINE)
+                    .withStyle(style -> style.withClickEvent(new ClickEvent(ClickEvent.Action.OPEN_FILE, path.toAbsolutePath().toString())));
+            minecraft.gui.getChat().addMessage(Component.translatable(Gui.DEBUG_OVERLAY_EXPORTED, fileName));
+        } catch (IOException e) {
+            Modonomicon.LOG.error("Failed to export book frame data to {}", path, e);
+            minecraft.gui.getChat().addMessage(Component.translatable(Gui.DEBUG_OVERLAY_EXPORT_FAILED).withStyle(ChatFormatting.RED));
+        }
+    }
+
+    /**
+     * The parts of book screen rendering that are measured separately. Phases may be part of others, e.g. text is
+     * rendered by page renderers.
+     */
+    public enum Phase {
+        BACKGROUND("Background"),
+        CONNECTIONS("Connections"),
+        ENTRIES("Entries"),
+        TOOLTIPS("Tooltips"),
+        TEXT("Text"),
+        PAGE_RENDERER("Page renderer");
+
+        private final String name;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public String getSerializedName() {
+            return this.name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Reused, so recording does not allocate.
+     */
+    private static class Frame {
+        private final long[] phaseNanos = new long[PHASES.length];
+        private long timestampMillis;
+        private long startNanos;
+        private long totalNanos;
+        private int drawCalls;
+        private long allocatedBytes;
+        private Class<?> screen;
+        private Object context;
+        private Class<?> leftPageRenderer;
+        private Class<?> rightPageRenderer;
+
+        private void reset() {
+            Arrays.fill(this.phaseNanos, 0);
+            this.totalNanos = 0;
+            this.drawCalls = 0;
+            this.allocatedBytes = 0;
+            this.screen = null;
+            this.context = null;
+            this.leftPageRenderer = null;
+            this.rightPageRenderer = null;
+        }
+    }
+}
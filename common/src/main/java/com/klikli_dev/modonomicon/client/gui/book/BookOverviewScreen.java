@@ -14,6 +14,7 @@ import com.klikli_dev.modonomicon.book.BookFrameOverlay;
 import com.klikli_dev.modonomicon.bookstate.BookUnlockStateManager;
 import com.klikli_dev.modonomicon.bookstate.BookVisualStateManager;
 import com.klikli_dev.modonomicon.client.gui.BookGuiManager;
+import com.klikli_dev.modonomicon.client.gui.book.BookDebugOverlay.Phase;
 import com.klikli_dev.modonomicon.client.gui.book.button.CategoryButton;
 import com.klikli_dev.modonomicon.client.gui.book.button.ReadAllButton;
 import com.klikli_dev.modonomicon.client.gui.book.button.SearchButton;
@@ -75,13 +76,13 @@ public class BookOverviewScreen extends Screen {
     }
 
     protected void updateUnreadEntriesState() {
+        var counts = BookUnlockStateManager.get().getCountersFor(this.minecraft.player, this.book).get();
+
         //check if ANY entry is unread
-        this.hasUnreadEntries = this.book.getEntries().values().stream().anyMatch(e -> !BookUnlockStateManager.get().isReadFor(this.minecraft.player, e));
+        this.hasUnreadEntries = counts.hasUnread();
 
         //check if any currently unlocked entry is unread
-        this.hasUnreadUnlockedEntries = this.book.getEntries().values().stream().anyMatch(e ->
-                BookUnlockStateManager.get().isUnlockedFor(this.minecraft.player, e) &&
-                        !BookUnlockStateManager.get().isReadFor(this.minecraft.player, e));
+        this.hasUnreadUnlockedEntries = counts.hasUnreadUnlocked();
     }
 
     public BookCategoryScreen getCurrentCategoryScreen() {
@@ -252,20 +253,41 @@ public class BookOverviewScreen extends Screen {
 
     @Override
     public void render(GuiGraphics guiGraphics, int pMouseX, int pMouseY, float pPartialTick) {
+        var debugOverlay = BookDebugOverlay.get();
+        debugOverlay.beginFrame();
+        debugOverlay.setContext(this.getCurrentCategoryScreen().getCategory().getId());
+
         RenderSystem.disableDepthTest(); //guard against depth test being enabled by other rendering code, that would cause ui elements to vanish
 
+        debugOverlay.begin(Phase.BACKGROUND);
         this.renderBackground(guiGraphics);
 
         this.getCurrentCategoryScreen().renderBackground(guiGraphics);
+        debugOverlay.end(Phase.BACKGROUND);
 
         this.getCurrentCategoryScreen().render(guiGraphics, pMouseX, pMouseY, pPartialTick);
 
+        debugOverlay.begin(Phase.BACKGROUND);
         this.renderFrame(guiGraphics);
+        debugOverlay.end(Phase.BACKGROUND);
 
+        debugOverlay.begin(Phase.TOOLTIPS);
         this.getCurrentCategoryScreen().renderEntryTooltips(guiGraphics, pMouseX, pMouseY, pPartialTick);
+        debugOverlay.end(Phase.TOOLTIPS);
 
         //do super render last -> it does the widgets including especially the tooltips and we want those to go over the frame
         super.render(guiGraphics, pMouseX, pMouseY, pPartialTick);
+
+        debugOverlay.endFrame(this, guiGraphics);
+    }
+
+    @Override
+    public boolean keyPressed(int keyCode, int scanCode, int modifiers) {
+        if (BookDebugOverlay.get().keyPressed(keyCode, modifiers)) {
+            return true;
+        }
+
+        return super.keyPressed(keyCode, scanCode, modifiers);
     }
 
     @Override
@@ -14,6 +14,7 @@ import com.klikli_dev.modonomicon.book.BookTextHolder;
 import com.klikli_dev.modonomicon.book.RenderedBookTextHolder;
 import com.klikli_dev.modonomicon.bookstate.BookUnlockStateManager;
 import com.klikli_dev.modonomicon.client.gui.BookGuiManager;
+import com.klikli_dev.modonomicon.client.gui.book.BookDebugOverlay.Phase;
 import com.klikli_dev.modonomicon.client.gui.book.button.ArrowButton;
 import com.klikli_dev.modonomicon.client.gui.book.button.EntryListButton;
 import com.klikli_dev.modonomicon.client.gui.book.button.ExitButton;
@@ -204,9 +205,13 @@ public class BookSearchScreen extends Screen implements BookScreenWithButtons {
 
     @Override
     public void render(GuiGraphics guiGraphics, int pMouseX, int pMouseY, float pPartialTick) {
+        var debugOverlay = BookDebugOverlay.get();
+        debugOverlay.beginFrame();
+        debugOverlay.setContext(this.getBook().getId());
 
         this.resetTooltip();
 
+        debugOverlay.begin(Phase.BACKGROUND);
         //we need to modify blit offset (now: z pose) to not draw over toasts
         guiGraphics.pose().pushPose();
         guiGraphics.pose().translate(0, 0, -1300);  //magic number arrived by testing until toasts show, but BookOverviewScreen does not
@@ -217,7 +222,9 @@ public class BookSearchScreen extends Screen implements BookScreenWithButtons {
         guiGraphics.pose().translate(this.bookLeft, this.bookTop, 0);
 
         BookContentScreen.renderBookBackground(guiGraphics, this.getBook().getBookContentTexture());
+        debugOverlay.end(Phase.BACKGROUND);
 
+        debugOverlay.begin(Phase.TEXT);
 
         if (this.openPagesIndex == 0) {
             this.drawCenteredStringNoShadow(guiGraphics, this.getTitle(),
@@ -258,14 +265,23 @@ public class BookSearchScreen extends Screen implements BookScreenWithButtons {
             }
         }
         guiGraphics.pose().popPose();
+        debugOverlay.end(Phase.TEXT);
 
         super.render(guiGraphics, pMouseX, pMouseY, pPartialTick);
 
+        debugOverlay.begin(Phase.TOOLTIPS);
         this.drawTooltip(guiGraphics, pMouseX, pMouseY);
+        debugOverlay.end(Phase.TOOLTIPS);
+
+        debugOverlay.endFrame(this, guiGraphics);
     }
 
     @Override
     public boolean keyPressed(int key, int scanCode, int modifiers) {
+        if (BookDebugOverlay.get().keyPressed(key, modifiers)) {
+            return true;
+        }
+
         String currQuery = this.searchField.getValue();
 
         if (key == GLFW.GLFW_KEY_ENTER) {
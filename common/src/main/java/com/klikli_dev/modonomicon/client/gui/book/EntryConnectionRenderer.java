@@ -147,28 +147,16 @@ public class EntryConnectionRenderer {
     public void render(GuiGraphics guiGraphics, BookEntry entry, BookEntryParent parent) {
         BookEntry parentEntry = parent.getEntry();
 
-        //only render if line is enabled and if we are in the same category (other category -> other page!)
-        if (parent.isLineEnabled() && parentEntry.getCategory().equals(entry.getCategory())) {
-            int deltaX = abs(entry.getX() - parentEntry.getX());
-            int deltaY = abs(entry.getY() - parentEntry.getY());
-
-            if (deltaX == 0 || deltaY == 0) {
-                //if the entries are in a line, just draw a line
-                this.renderLinedUpEntries(guiGraphics, entry, parentEntry, parent, deltaX == 0);
-            } else {
-                if (deltaX < 2 || deltaY < 2) {
-                    if (!parent.isLineReversed()) {
-                        this.renderSmallCurves(guiGraphics, entry, parentEntry, parent);
-                    } else {
-                        this.renderSmallCurvesReversed(guiGraphics, entry, parentEntry, parent);
-                    }
-                } else {
-                    if (!parent.isLineReversed()) {
-                        this.renderLargeCurves(guiGraphics, entry, parentEntry, parent);
-                    } else {
-                        this.renderLargeCurvesReversed(guiGraphics, entry, parentEntry, parent);
-                    }
-                }
+        //the shape is classified when the book is built, see EntryConnectionShape#classify
+        switch (parent.getConnectionShape()) {
+            case VERTICAL_LINE -> this.renderLinedUpEntries(guiGraphics, entry, parentEntry, parent, true);
+            case HORIZONTAL_LINE -> this.renderLinedUpEntries(guiGraphics, entry, parentEntry, parent, false);
+            case SMALL_CURVES -> this.renderSmallCurves(guiGraphics, entry, parentEntry, parent);
+            case SMALL_CURVES_REVERSED -> this.renderSmallCurvesReversed(guiGraphics, entry, parentEntry, parent);
+            case LARGE_CURVES -> this.renderLargeCurves(guiGraphics, entry, parentEntry, parent);
+            case LARGE_CURVES_REVERSED -> this.renderLargeCurvesReversed(guiGraphics, entry, parentEntry, parent);
+            case NONE -> {
+                //line disabled, or other category -> other page!
             }
         }
     }
@@ -7,6 +7,7 @@
 package com.klikli_dev.modonomicon.client.gui.book.button;
 
 import com.klikli_dev.modonomicon.book.BookCategory;
+import com.klikli_dev.modonomicon.bookstate.BookUnlockStateManager;
 import com.klikli_dev.modonomicon.client.gui.book.BookOverviewScreen;
 import com.mojang.blaze3d.systems.RenderSystem;
 import net.minecraft.client.gui.GuiGraphics;
@@ -16,6 +17,15 @@ import net.minecraft.network.chat.Component;
 
 public class CategoryButton extends Button {
 
+    private static final int UNREAD_MARKER_U = 350;
+    private static final int UNREAD_MARKER_V = 19;
+    private static final int UNREAD_MARKER_SIZE = 11;
+    /**
+     * Relative to the icon, so the marker overlaps its top right corner.
+     */
+    private static final int UNREAD_MARKER_X = 10;
+    private static final int UNREAD_MARKER_Y = -3;
+
     private final BookOverviewScreen parent;
     private final BookCategory category;
     private final int categoryIndex;
@@ -80,6 +90,14 @@ public class CategoryButton extends Button {
 
             guiGraphics.pose().popPose();
 
+            //mark categories with unread unlocked entries, same marker as on the entries themselves
+            var counts = BookUnlockStateManager.get().getCountersFor(this.parent.getMinecraft().player, this.category.getBook()).get(this.category);
+            if (counts.hasUnreadUnlocked()) {
+                guiGraphics.pose().translate(0, 0, 1);
+                guiGraphics.blit(this.parent.getBook().getBookContentTexture(), UNREAD_MARKER_X, UNREAD_MARKER_Y,
+                        UNREAD_MARKER_U, UNREAD_MARKER_V, UNREAD_MARKER_SIZE, UNREAD_MARKER_SIZE, 512, 256);
+            }
+
             guiGraphics.pose().popPose();
 
             guiGraphics.pose().popPose();
@@ -0,0 +1,213 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.client.render;
+
+import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
+import com.klikli_dev.modonomicon.platform.ClientServices;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import com.mojang.datafixers.util.Pair;
+import net.minecraft.client.renderer.ChunkBufferBuilderPack;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.EntityBlock;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+import org.joml.Matrix4f;
+
+import java.util.*;
+
+/**
+ * The static block geometry of a multiblock, baked into one vertex buffer per render layer.
+ * <p>
+ * Matchers may cycle their displayed state (e.g. tag matchers), so we bake one keyframe per distinct set of displayed
+ * states and keep the most recently used ones around. Block entities are not part of the baked geometry, callers need
+ * to render them separately, see {@link #getBlockEntities(long)}.
+ */
+public class BakedMultiblock implements AutoCloseable {
+
+    /**
+     * Displayed states change at most once per second, see e.g. TagMatcher#getDisplayedState.
+     */
+    private static final int TICKS_PER_KEYFRAME = 20;
+    private static final int MAX_KEYFRAMES = 16;
+
+    private static final RandomSource randomSource = RandomSource.create();
+
+    /**
+     * Shared between all baked multiblocks, as baking only ever happens on the render thread.
+     */
+    private static ChunkBufferBuilderPack builderPack;
+
+    private final Multiblock multiblock;
+    private final List<Multiblock.SimulateResult> simulation;
+    private final Rotation rotation;
+    private final Map<List<BlockState>, Keyframe> keyframes = new LinkedHashMap<>(MAX_KEYFRAMES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<BlockState>, Keyframe> eldest) {
+            if (this.size() > MAX_KEYFRAMES) {
+                eldest.getValue().close();
+                return true;
+            }
+            return false;
+        }
+    };
+    private final Matrix4f modelViewMatrix = new Matrix4f();
+
+    private Keyframe currentKeyframe;
+    private long currentKeyframeIndex = -1;
+    private boolean closed;
+
+    public BakedMultiblock(Multiblock multiblock, Collection<Multiblock.SimulateResult> simulation, Rotation rotation) {
+        this.multiblock = multiblock;
+        this.simulation = List.copyOf(simulation);
+        this.rotation = rotation;
+    }
+
+    private static ChunkBufferBuilderPack getBuilderPack() {
+        if (builderPack == null) {
+            builderPack = new ChunkBufferBuilderPack();
+        }
+        return builderPack;
+    }
+
+    /**
+     * Draws the baked geometry for the given ticks with the given pose applied on top of the current model view matrix.
+     * Bakes a new keyframe if the displayed states changed since the last call.
+     */
+    public void render(PoseStack poseStack, long ticks) {
+        if (this.closed) {
+            return;
+        }
+
+        var keyframe = this.getKeyframe(ticks);
+        this.modelViewMatrix.set(RenderSystem.getModelViewMatrix()).mul(poseStack.last().pose());
+        keyframe.draw(this.modelViewMatrix);
+    }
+
+    /**
+     * The positions and displayed states of all block entities for the given ticks.
+     * They are not baked, as block entity renderers are free to animate.
+     */
+    public List<Pair<BlockPos, BlockState>> getBlockEntities(long ticks) {
+        if (this.closed) {
+            return List.of();
+        }
+        return this.getKeyframe(ticks).blockEntities;
+    }
+
+    /**
+     * Frees all vertex buffers. The baked multiblock renders nothing after it was closed.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        this.keyframes.values().forEach(Keyframe::close);
+        this.keyframes.clear();
+        this.currentKeyframe = null;
+    }
+
+    private Keyframe getKeyframe(long ticks) {
+        long keyframeIndex = ticks / TICKS_PER_KEYFRAME;
+        if (this.currentKeyframe == null || keyframeIndex != this.currentKeyframeIndex) {
+            var states = this.getDisplayedStates(ticks);
+            var keyframe = this.keyframes.get(states);
+            if (keyframe == null) {
+                keyframe = this.bake(states);
+                this.keyframes.put(states, keyframe);
+            }
+            this.currentKeyframe = keyframe;
+            this.currentKeyframeIndex = keyframeIndex;
+        }
+        return this.currentKeyframe;
+    }
+
+    private List<BlockState> getDisplayedStates(long ticks) {
+        var states = new BlockState[this.simulation.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = this.simulation.get(i).getStateMatcher().getDisplayedState(ticks).rotate(this.rotation);
+        }
+        return List.of(states);
+    }
+
+    private Keyframe bake(List<BlockState> states) {
+        var pack = getBuilderPack();
+        MultiBufferSource bufferSource = type -> {
+            BufferBuilder builder = pack.builder(type);
+            if (!builder.building()) {
+                builder.begin(type.mode(), type.format());
+            }
+            return builder;
+        };
+
+        var poseStack = new PoseStack();
+        var blockEntities = new ArrayList<Pair<BlockPos, BlockState>>();
+        for (int i = 0; i < states.size(); i++) {
+            var state = states.get(i);
+            var pos = this.simulation.get(i).getWorldPosition();
+
+            poseStack.pushPose();
+            poseStack.translate(pos.getX(), pos.getY(), pos.getZ());
+            ClientServices.MULTIBLOCK.renderBlock(state, pos, this.multiblock, poseStack, bufferSource, randomSource);
+            poseStack.popPose();
+
+            if (state.getBlock() instanceof EntityBlock) {
+                blockEntities.add(Pair.of(pos, state));
+            }
+        }
+
+        //iterate in chunk layer order, so translucent geometry is drawn last
+        var buffers = new LinkedHashMap<RenderType, VertexBuffer>();
+        for (var type : RenderType.chunkBufferLayers()) {
+            var builder = pack.builder(type);
+            if (!builder.building()) {
+                continue;
+            }
+
+            var renderedBuffer = builder.endOrDiscardIfEmpty();
+            if (renderedBuffer == null) {
+                continue;
+            }
+
+            var vertexBuffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+            vertexBuffer.bind();
+            vertexBuffer.upload(renderedBuffer);
+            VertexBuffer.unbind();
+            buffers.put(type, vertexBuffer);
+        }
+
+        return new Keyframe(buffers, List.copyOf(blockEntities));
+    }
+
+    private record Keyframe(Map<RenderType, VertexBuffer> buffers, List<Pair<BlockPos, BlockState>> blockEntities) {
+
+        public void draw(Matrix4f modelViewMatrix) {
+            for (var entry : this.buffers.entrySet()) {
+                var type = entry.getKey();
+                var vertexBuffer = entry.getValue();
+
+                type.setupRenderState();
+                vertexBuffer.bind();
+                vertexBuffer.drawWithShader(modelViewMatrix, RenderSystem.getProjectionMatrix(), RenderSystem.getShader());
+                type.clearRenderState();
+            }
+            VertexBuffer.unbind();
+        }
+
+        public void close() {
+            this.buffers.values().forEach(VertexBuffer::close);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.client.render;
+
+import com.klikli_dev.modonomicon.Modonomicon;
+import com.klikli_dev.modonomicon.book.Book;
+import com.klikli_dev.modonomicon.book.BookIcon;
+import com.klikli_dev.modonomicon.data.BookDataManager;
+import com.mojang.blaze3d.platform.NativeImage;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.DynamicTexture;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stitches the texture icons of all books into a few atlas textures, so icons can be drawn without switching textures,
+ * see {@link GuiQuadBatch}.
+ * <p>
+ * Rebuilt in the background whenever books finish loading on the client, and when resources are reloaded. Until the
+ * atlas is ready, or for textures that do not fit, icons are drawn from their own textures.
+ */
+public class BookIconAtlas {
+
+    public static final int ATLAS_SIZE = 1024;
+    /**
+     * Larger textures are not worth stitching, they would take a large part of the atlas.
+     */
+    private static final int MAX_ICON_SIZE = 256;
+    /**
+     * Space between icons, so scaled drawing does not bleed into the neighbours.
+     */
+    private static final int PADDING = 1;
+
+    private static final BookIconAtlas instance = new BookIconAtlas();
+
+    private final List<ResourceLocation> atlases = new ArrayList<>();
+    private final List<DynamicTexture> textures = new ArrayList<>();
+    private Map<ResourceLocation, Region> regions = Map.of();
+    private int generation;
+
+    private BookIconAtlas() {
+    }
+
+    public static BookIconAtlas get() {
+        return instance;
+    }
+
+    private static Set<ResourceLocation> collectTextures(Collection<Book> books) {
+        var textures = new LinkedHashSet<ResourceLocation>();
+        for (var book : books) {
+            for (var category : book.getCategories().values()) {
+                addTexture(textures, category.getIcon());
+                for (var entry : category.getEntries().values()) {
+                    addTexture(textures, entry.getIcon());
+                }
+            }
+        }
+        return textures;
+    }
+
+    private static void addTexture(Set<ResourceLocation> textures, BookIcon icon) {
+        if (icon != null && icon.getTexture() != null) {
+            textures.add(icon.getTexture());
+        }
+    }
+
+    private static List<Page> stitch(ResourceManager resourceManager, Set<ResourceLocation> textures) {
+        var images = new ArrayList<Map.Entry<ResourceLocation, NativeImage>>();
+        for (var texture : textures) {
+            try (var stream = resourceManager.open(texture)) {
+                var image = NativeImage.read(stream);
+                if (image.getWidth() > MAX_ICON_SIZE || image.getHeight() > MAX_ICON_SIZE) {
+                    image.close();
+                    continue;
+                }
+                images.add(Map.entry(texture, image));
+            } catch (IOException e) {
+                //will be drawn from its own texture, which reports the missing texture as usual
+                Modonomicon.LOG.debug("Failed to load book icon {} for stitching", texture, e);
+            }
+        }
+
+        //tallest first, so the shelves are filled evenly
+        images.sort(Comparator.comparingInt((Map.Entry<ResourceLocation, NativeImage> e) -> e.getValue().getHeight()).reversed());
+
+        var pages = new ArrayList<Page>();
+        Page page = null;
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+        for (var entry : images) {
+            var image = entry.getValue();
+            if (page != null && x + image.getWidth() > ATLAS_SIZE) {
+                //next shelf
+                x = 0;
+                y += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            if (page == null || y + image.getHeight() > ATLAS_SIZE) {
+                page = new Page(new NativeImage(ATLAS_SIZE, ATLAS_SIZE, true), new HashMap<>());
+                pages.add(page);
+                x = 0;
+                y = 0;
+                shelfHeight = 0;
+            }
+
+            image.copyRect(page.image(), 0, 0, x, y, image.getWidth(), image.getHeight(), false, false);
+            page.regions().put(entry.getKey(), new int[]{x, y, image.getWidth(), image.getHeight()});
+            image.close();
+
+            x += image.getWidth() + PADDING;
+            shelfHeight = Math.max(shelfHeight, image.getHeight());
+        }
+        return pages;
+    }
+
+    /**
+     * Rebuilds the atlas for the given books. Called on the render thread when books finish loading.
+     */
+    public void rebuild(Collection<Book> books) {
+        int generation = ++this.generation;
+        var textures = collectTextures(books);
+        var minecraft = Minecraft.getInstance();
+        var resourceManager = minecraft.getResourceManager();
+
+        CompletableFuture.supplyAsync(() -> stitch(resourceManager, textures), Util.backgroundExecutor())
+                .thenAcceptAsync(pages -> {
+                    if (generation != this.generation) {
+                        //superseded by a newer rebuild
+                        pages.forEach(page -> page.image().close());
+                        return;
+                    }
+                    this.upload(pages);
+                }, minecraft)
+                .exceptionally(e -> {
+                    Modonomicon.LOG.error("Failed to stitch book icons", e);
+                    return null;
+                });
+    }
+
+    private void upload(List<Page> pages) {
+        this.release();
+
+        var textureManager = Minecraft.getInstance().getTextureManager();
+        var regions = new HashMap<ResourceLocation, Region>();
+        for (int i = 0; i < pages.size(); i++) {
+            var page = pages.get(i);
+            var location = Modonomicon.loc("book_icon_atlas_" + i);
+            var texture = new DynamicTexture(page.image());
+            textureManager.register(location, texture);
+            this.atlases.add(location);
+            this.textures.add(texture);
+            for (var entry : page.regions().entrySet()) {
+                var r = entry.getValue();
+                regions.put(entry.getKey(), new Region(location, r[0], r[1], r[2], r[3]));
+            }
+        }
+        this.regions = regions;
+    }
+
+    private void release() {
+        this.regions = Map.of();
+        //not TextureManager#release: that deletes the GL id but leaves it set on the registered texture, so
+        //registering the same location for the rebuilt atlas would delete the id a second time, when it may already be
+        //the id of the new atlas. Closing the texture frees its image and resets its id.
+        for (var texture : this.textures) {
+            texture.close();
+        }
+        this.textures.clear();
+        this.atlases.clear();
+    }
+
+    /**
+     * Rebuilds the atlas once resources are reloaded, the icons may have changed. Called on the render thread by the
+     * client book data reload listener.
+     */
+    public void onResourcesReloaded() {
+        if (!this.atlases.isEmpty()) {
+            this.rebuild(BookDataManager.get().getBooks().values());
+        }
+    }
+
+    /**
+     * @return where the given icon texture is stitched, or null if it is not (yet) part of the atlas.
+     */
+    @Nullable
+    public Region getRegion(ResourceLocation texture) {
+        return this.regions.get(texture);
+    }
+
+    /**
+     * @return the atlas textures, to draw the icons of each with one batch.
+     */
+    public List<ResourceLocation> getAtlases() {
+        return Collections.unmodifiableList(this.atlases);
+    }
+
+    /**
+     * A texture within an atlas, in pixels. Atlases are {@link #ATLAS_SIZE} pixels wide and high.
+     */
+    public record Region(ResourceLocation atlas, int x, int y, int width, int height) {
+        public float u0() {
+            return this.x / (float) ATLAS_SIZE;
+        }
+
+        public float v0() {
+            return this.y / (float) ATLAS_SIZE;
+        }
+
+        public float u1() {
+            return (this.x + this.width) / (float) ATLAS_SIZE;
+        }
+
+        public float v1() {
+            return (this.y + this.height) / (float) ATLAS_SIZE;
+        }
+    }
+
+    /**
+     * @param regions x, y, width and height of each texture on the page.
+     */
+    private record Page(NativeImage image, Map<ResourceLocation, int[]> regions) {
+    }
+}
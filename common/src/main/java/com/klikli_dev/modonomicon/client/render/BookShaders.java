@@ -0,0 +1,45 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.client.render;
+
+import com.klikli_dev.modonomicon.Modonomicon;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import net.minecraft.client.renderer.ShaderInstance;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The core shaders of Modonomicon. They are registered by the loaders, and loaded with the vanilla shaders on resource
+ * reload.
+ */
+public class BookShaders {
+
+    /**
+     * Composites up to {@link #PARALLAX_BACKGROUND_MAX_LAYERS} category background layers in one pass.
+     */
+    public static final ResourceLocation PARALLAX_BACKGROUND = Modonomicon.loc("parallax_background");
+    public static final VertexFormat PARALLAX_BACKGROUND_FORMAT = DefaultVertexFormat.POSITION_TEX;
+    /**
+     * Matches the samplers and layer uniforms declared in the shader.
+     */
+    public static final int PARALLAX_BACKGROUND_MAX_LAYERS = 8;
+
+    private static ShaderInstance parallaxBackground;
+
+    /**
+     * @return the parallax background shader, or null if it failed to load.
+     */
+    @Nullable
+    public static ShaderInstance getParallaxBackground() {
+        return parallaxBackground;
+    }
+
+    public static void setParallaxBackground(ShaderInstance shader) {
+        parallaxBackground = shader;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.client.render;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.BufferUploader;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.Tesselator;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Collects textured quads from one texture and draws them with a single draw call, instead of one per
+ * {@link GuiGraphics#blit(ResourceLocation, int, int, int, int, int, int)}.
+ * <p>
+ * Quads carry their own color, so e.g. greyed out entries do not need a shader color change in between.
+ * Only one batch can be open at a time, it uses the shared {@link Tesselator}.
+ */
+public class GuiQuadBatch {
+
+    private final GuiGraphics guiGraphics;
+    private final ResourceLocation texture;
+    private final float textureWidth;
+    private final float textureHeight;
+    private final BufferBuilder builder;
+    private int quads;
+
+    private GuiQuadBatch(GuiGraphics guiGraphics, ResourceLocation texture, int textureWidth, int textureHeight) {
+        this.guiGraphics = guiGraphics;
+        this.texture = texture;
+        this.textureWidth = textureWidth;
+        this.textureHeight = textureHeight;
+        this.builder = Tesselator.getInstance().getBuilder();
+        this.builder.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_COLOR_TEX);
+    }
+
+    /**
+     * Starts a batch for the given texture. Must be finished with {@link #draw()} before anything else is rendered.
+     */
+    public static GuiQuadBatch begin(GuiGraphics guiGraphics, ResourceLocation texture, int textureWidth, int textureHeight) {
+        return new GuiQuadBatch(guiGraphics, texture, textureWidth, textureHeight);
+    }
+
+    /**
+     * Adds a quad like {@link GuiGraphics#blit(ResourceLocation, int, int, int, int, float, float, int, int, int, int)},
+     * at the current pose.
+     */
+    public void blit(int x, int y, int width, int height, float u, float v, int uWidth, int vHeight, float red, float green, float blue, float alpha) {
+        this.quad(x, y, width, height,
+                u / this.textureWidth, v / this.textureHeight, (u + uWidth) / this.textureWidth, (v + vHeight) / this.textureHeight,
+                red, green, blue, alpha);
+    }
+
+    /**
+     * Adds a quad with normalized texture coordinates, at the current pose.
+     */
+    public void quad(int x, int y, int width, int height, float u0, float v0, float u1, float v1, float red, float green, float blue, float alpha) {
+        var matrix = this.guiGraphics.pose().last().pose();
+        this.builder.vertex(matrix, x, y, 0).color(red, green, blue, alpha).uv(u0, v0).endVertex();
+        this.builder.vertex(matrix, x, y + height, 0).color(red, green, blue, alpha).uv(u0, v1).endVertex();
+        this.builder.vertex(matrix, x + width, y + height, 0).color(red, green, blue, alpha).uv(u1, v1).endVertex();
+        this.builder.vertex(matrix, x + width, y, 0).color(red, green, blue, alpha).uv(u1, v0).endVertex();
+        this.quads++;
+    }
+
+    /**
+     * Draws all collected quads, if any.
+     */
+    public void draw() {
+        var buffer = this.builder.end();
+        if (this.quads == 0) {
+            buffer.release();
+            return;
+        }
+
+        RenderSystem.setShaderTexture(0, this.texture);
+        RenderSystem.setShader(GameRenderer::getPositionColorTexShader);
+        RenderSystem.enableBlend();
+        RenderSystem.defaultBlendFunc();
+        BufferUploader.drawWithShader(buffer);
+    }
+}
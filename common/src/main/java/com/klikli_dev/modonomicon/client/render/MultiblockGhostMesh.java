@@ -0,0 +1,238 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.client.render;
+
+import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.EntityBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import org.joml.Matrix4f;
+
+import java.util.BitSet;
+
+/**
+ * The ghost geometry of all currently unmatched positions of a {@link MultiblockPreviewSimulation}, baked into one
+ * vertex buffer per chunk section.
+ * <p>
+ * Sections are only rebuilt if a position in them completes or breaks, or if the displayed state of an unmatched
+ * position cycles. Drawing is a fixed number of draw calls per section, regardless of how many blocks are in it.
+ * Vertices are baked relative to the section origin to keep float precision far away from the world origin.
+ */
+public class MultiblockGhostMesh implements AutoCloseable {
+
+    /**
+     * Displayed states change at most once per second, see e.g. TagMatcher#getDisplayedState.
+     */
+    private static final int TICKS_PER_KEYFRAME = 20;
+
+    /**
+     * Shared between all meshes, as baking only ever happens on the render thread.
+     */
+    private static BufferBuilder builder;
+
+    private final MultiblockPreviewSimulation simulation;
+    private final Long2ObjectMap<IntArrayList> sectionIndices = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<VertexBuffer> sectionBuffers = new Long2ObjectOpenHashMap<>();
+    private final LongSet dirtySections = new LongOpenHashSet();
+    /**
+     * The displayed state each unmatched position was baked with, null if the position is not part of the mesh.
+     */
+    private final BlockState[] bakedStates;
+    /**
+     * Positions in the mesh whose displayed state is a block entity, they need to be rendered separately.
+     */
+    private final BitSet blockEntities;
+    private final Matrix4f modelViewMatrix = new Matrix4f();
+
+    private long keyframeIndex = -1;
+    private boolean closed;
+
+    public MultiblockGhostMesh(MultiblockPreviewSimulation simulation) {
+        this.simulation = simulation;
+
+        var results = simulation.getResults();
+        this.bakedStates = new BlockState[results.size()];
+        this.blockEntities = new BitSet(results.size());
+
+        for (int i = 0; i < results.size(); i++) {
+            long section = sectionOf(results.get(i).getWorldPosition());
+            this.sectionIndices.computeIfAbsent(section, s -> new IntArrayList()).add(i);
+        }
+        this.dirtySections.addAll(this.sectionIndices.keySet());
+    }
+
+    private static long sectionOf(BlockPos pos) {
+        return SectionPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getY()), SectionPos.blockToSectionCoord(pos.getZ()));
+    }
+
+    private static BufferBuilder getBuilder() {
+        if (builder == null) {
+            builder = new BufferBuilder(RenderType.translucent().bufferSize());
+        }
+        return builder;
+    }
+
+    /**
+     * Marks the section of the position with the given index to be rebuilt, e.g. because it completed or broke.
+     */
+    public void markDirty(int index) {
+        this.dirtySections.add(sectionOf(this.simulation.getResults().get(index).getWorldPosition()));
+    }
+
+    /**
+     * Rebuilds all dirty sections, and sections where the displayed state of an unmatched position changed.
+     */
+    public void update(Level level, long ticks) {
+        if (this.closed) {
+            return;
+        }
+
+        long keyframeIndex = ticks / TICKS_PER_KEYFRAME;
+        if (keyframeIndex != this.keyframeIndex) {
+            this.keyframeIndex = keyframeIndex;
+            var results = this.simulation.getResults();
+            var unmatched = this.simulation.getUnmatched();
+            for (int i = unmatched.nextSetBit(0); i >= 0; i = unmatched.nextSetBit(i + 1)) {
+                if (this.bakedStates[i] != this.getDisplayedState(results.get(i), ticks)) {
+                    this.markDirty(i);
+                }
+            }
+        }
+
+        if (this.dirtySections.isEmpty()) {
+            return;
+        }
+
+        for (long section : this.dirtySections) {
+            this.rebuild(level, section, ticks);
+        }
+        this.dirtySections.clear();
+    }
+
+    /**
+     * Draws all sections with the given (ghost) render type. The pose stack is expected to be translated by the
+     * negative camera position.
+     */
+    public void render(PoseStack poseStack, RenderType renderType) {
+        if (this.closed || this.sectionBuffers.isEmpty()) {
+            return;
+        }
+
+        renderType.setupRenderState();
+        var shader = RenderSystem.getShader();
+        for (var entry : this.sectionBuffers.long2ObjectEntrySet()) {
+            long section = entry.getLongKey();
+            poseStack.pushPose();
+            poseStack.translate(
+                    SectionPos.sectionToBlockCoord(SectionPos.x(section)),
+                    SectionPos.sectionToBlockCoord(SectionPos.y(section)),
+                    SectionPos.sectionToBlockCoord(SectionPos.z(section)));
+            this.modelViewMatrix.set(RenderSystem.getModelViewMatrix()).mul(poseStack.last().pose());
+            poseStack.popPose();
+
+            var vertexBuffer = entry.getValue();
+            vertexBuffer.bind();
+            vertexBuffer.drawWithShader(this.modelViewMatrix, RenderSystem.getProjectionMatrix(), shader);
+        }
+        VertexBuffer.unbind();
+        renderType.clearRenderState();
+    }
+
+    /**
+     * The positions in the mesh whose displayed state is a block entity, as indices into
+     * {@link MultiblockPreviewSimulation#getResults()}.
+     */
+    public BitSet getBlockEntities() {
+        return this.blockEntities;
+    }
+
+    /**
+     * The displayed state the position with the given index was baked with.
+     */
+    public BlockState getBakedState(int index) {
+        return this.bakedStates[index];
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        this.sectionBuffers.values().forEach(VertexBuffer::close);
+        this.sectionBuffers.clear();
+    }
+
+    private BlockState getDisplayedState(Multiblock.SimulateResult result, long ticks) {
+        return result.getStateMatcher().getDisplayedState(ticks).rotate(this.simulation.getRotation());
+    }
+
+    private void rebuild(Level level, long section, long ticks) {
+        var builder = getBuilder();
+        builder.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.BLOCK);
+        //all chunk render types share the block vertex format, so one buffer can take all of them
+        MultiBufferSource bufferSource = type -> builder;
+
+        int originX = SectionPos.sectionToBlockCoord(SectionPos.x(section));
+        int originY = SectionPos.sectionToBlockCoord(SectionPos.y(section));
+        int originZ = SectionPos.sectionToBlockCoord(SectionPos.z(section));
+
+        var poseStack = new PoseStack();
+        var results = this.simulation.getResults();
+        var unmatched = this.simulation.getUnmatched();
+        var indices = this.sectionIndices.get(section);
+        for (int j = 0; j < indices.size(); j++) {
+            int i = indices.getInt(j);
+            if (!unmatched.get(i)) {
+                this.bakedStates[i] = null;
+                this.blockEntities.clear(i);
+                continue;
+            }
+
+            var result = results.get(i);
+            var state = this.getDisplayedState(result, ticks);
+            var pos = result.getWorldPosition();
+            this.bakedStates[i] = state;
+            this.blockEntities.set(i, state.getBlock() instanceof EntityBlock);
+
+            poseStack.pushPose();
+            poseStack.translate(-originX, -originY, -originZ);
+            MultiblockPreviewRenderer.renderBlock(level, state, pos, this.simulation.getMultiblock(), poseStack, bufferSource);
+            poseStack.popPose();
+        }
+
+        var oldBuffer = this.sectionBuffers.remove(section);
+        if (oldBuffer != null) {
+            oldBuffer.close();
+        }
+
+        var renderedBuffer = builder.endOrDiscardIfEmpty();
+        if (renderedBuffer != null) {
+            var vertexBuffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+            vertexBuffer.bind();
+            vertexBuffer.upload(renderedBuffer);
+            VertexBuffer.unbind();
+            this.sectionBuffers.put(section, vertexBuffer);
+        }
+    }
+}
@@ -13,8 +13,7 @@ import com.klikli_dev.modonomicon.api.ModonomiconConstants;
 import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
 import com.klikli_dev.modonomicon.client.ClientTicks;
 import com.klikli_dev.modonomicon.multiblock.AbstractMultiblock;
-import com.klikli_dev.modonomicon.multiblock.matcher.DisplayOnlyMatcher;
-import com.klikli_dev.modonomicon.multiblock.matcher.Matchers;
+import com.klikli_dev.modonomicon.multiblock.MultiblockBlockEntityCache;
 import com.klikli_dev.modonomicon.platform.ClientServices;
 import com.klikli_dev.modonomicon.platform.Services;
 import com.klikli_dev.modonomicon.util.GuiGraphicsExt;
@@ -22,7 +21,6 @@ import com.mojang.blaze3d.platform.GlStateManager;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.*;
 import com.mojang.blaze3d.vertex.VertexFormat.Mode;
-import com.mojang.datafixers.util.Pair;
 import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
@@ -42,10 +40,10 @@ import net.minecraft.world.InteractionResult;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
-import net.minecraft.world.level.block.EntityBlock;
 import net.minecraft.world.level.block.Rotation;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
@@ -60,7 +58,10 @@ public class MultiblockPreviewRenderer {
 
     public static boolean hasMultiblock;
 
-    private static Map<BlockPos, BlockEntity> blockEntityCache = new HashMap<>();
+    /**
+     * Owner of the block entities of the preview in {@link MultiblockBlockEntityCache}.
+     */
+    private static final Object BLOCK_ENTITY_OWNER = new Object();
     private static Set<BlockEntity> erroredBlockEntities = Collections.newSetFromMap(new WeakHashMap<>());
     private static Multiblock multiblock;
     private static Component name;
@@ -73,6 +74,8 @@ public class MultiblockPreviewRenderer {
     private static BlockState lookingState;
     private static BlockPos lookingPos;
     private static MultiBufferSource.BufferSource buffers = null;
+    private static MultiblockPreviewSimulation simulation;
+    private static MultiblockGhostMesh ghostMesh;
 
     public static void setMultiblock(Multiblock multiblock, Component name, boolean flip) {
         setMultiblock(multiblock, name, flip, pos -> pos);
@@ -83,10 +86,10 @@ public class MultiblockPreviewRenderer {
             hasMultiblock = false;
         } else {
             MultiblockPreviewRenderer.multiblock = multiblock;
-            MultiblockPreviewRenderer.blockEntityCache = new HashMap<>();
             MultiblockPreviewRenderer.erroredBlockEntities = Collections.newSetFromMap(new WeakHashMap<>());
             MultiblockPreviewRenderer.name = name;
             MultiblockPreviewRenderer.offsetApplier = offsetApplier;
+            clearSimulation();
             pos = null;
             hasMultiblock = multiblock != null;
             isAnchored = false;
@@ -200,6 +203,11 @@ public class MultiblockPreviewRenderer {
     }
 
     public static void onClientTick(Minecraft mc) {
+        if (!hasMultiblock) {
+            //release the ghost mesh as soon as the preview is gone, no matter how it was cleared
+            clearSimulation();
+        }
+
         if (Minecraft.getInstance().level == null) {
             hasMultiblock = false;
         } else if (isAnchored && blocks == blocksDone && airFilled == 0) {
@@ -212,6 +220,36 @@ public class MultiblockPreviewRenderer {
         }
     }
 
+    /**
+     * Called for every block change on the client, so the preview only needs to re-test the affected position.
+     */
+    public static void onBlockChanged(BlockPos pos) {
+        if (simulation != null) {
+            simulation.markDirty(pos);
+        }
+    }
+
+    /**
+     * Called when the client receives chunk data, as that does not cause individual block changes.
+     */
+    public static void onChunkLoaded(ChunkPos chunkPos) {
+        if (simulation != null) {
+            simulation.markDirty(chunkPos);
+        }
+    }
+
+    private static void clearSimulation() {
+        if (ghostMesh != null) {
+            ghostMesh.close();
+            ghostMesh = null;
+        }
+        if (simulation != null) {
+            //block entities are cached by world position, so they are of no use for another anchor either
+            MultiblockBlockEntityCache.get().release(BLOCK_ENTITY_OWNER);
+            simulation = null;
+        }
+    }
+
     public static void renderMultiblock(Level level, PoseStack ms) {
         Minecraft mc = Minecraft.getInstance();
         if (!isAnchored) {
@@ -248,59 +286,58 @@ public class MultiblockPreviewRenderer {
             checkPos = blockRes.getBlockPos().relative(blockRes.getDirection());
         }
 
-        blocks = blocksDone = airFilled = 0;
         lookingState = null;
         lookingPos = checkPos;
 
-        Pair<BlockPos, Collection<Multiblock.SimulateResult>> sim = multiblock.simulate(level, getStartPos(), getFacingRotation(), true, false);
-        for (Multiblock.SimulateResult r : sim.getSecond()) {
-            float alpha = 0.3F;
-            if (r.getWorldPosition().equals(checkPos)) {
-                lookingState = r.getStateMatcher().getDisplayedState(ClientTicks.ticks);
-                alpha = 0.6F + (float) (Math.sin(ClientTicks.total * 0.3F) + 1F) * 0.1F;
-            }
+        var startPos = getStartPos();
+        if (simulation == null || !simulation.isFor(multiblock, level, startPos, facingRotation)) {
+            clearSimulation();
+            simulation = new MultiblockPreviewSimulation(multiblock, level, startPos, facingRotation);
+            ghostMesh = new MultiblockGhostMesh(simulation);
+        }
+        //only re-tests positions touched by block updates since the last frame, and rebuilds the ghost mesh sections they are in
+        simulation.update(level, ghostMesh::markDirty);
+        ghostMesh.update(level, ClientTicks.ticks);
+
+        blocks = simulation.getBlocks();
+        blocksDone = simulation.getBlocksDone();
+        airFilled = simulation.getAirFilled();
+
+        var results = simulation.getResults();
+        int lookingIndex = simulation.indexOf(checkPos);
+        if (lookingIndex >= 0) {
+            lookingState = results.get(lookingIndex).getStateMatcher().getDisplayedState(ClientTicks.ticks);
+        }
 
-            if (!r.getStateMatcher().equals(Matchers.ANY) && r.getStateMatcher().getType() != DisplayOnlyMatcher.TYPE) {
-                boolean air = !r.getStateMatcher().countsTowardsTotalBlocks();
-                if (!air) {
-                    blocks++;
-                }
+        ghostMesh.render(ms, GhostRenderLayer.remap(RenderType.translucent()));
 
-                if (!r.test(level, facingRotation)) {
-                    BlockState renderState = r.getStateMatcher().getDisplayedState(ClientTicks.ticks).rotate(facingRotation);
-                    renderBlock(level, renderState, r.getWorldPosition(), multiblock, air, alpha, ms);
-
-                    if (renderState.getBlock() instanceof EntityBlock eb) {
-                        var be = blockEntityCache.computeIfAbsent(r.getWorldPosition().immutable(), p -> eb.newBlockEntity(p, renderState));
-                        if (be != null && !erroredBlockEntities.contains(be)) {
-                            be.setLevel(mc.level);
-
-                            // fake cached state in case the renderer checks it as we don't want to query the actual world
-                            be.setBlockState(renderState);
-
-                            ms.pushPose();
-                            var bePos = r.getWorldPosition();
-                            ms.translate(bePos.getX(), bePos.getY(), bePos.getZ());
-
-                            try {
-                                BlockEntityRenderer<BlockEntity> renderer = Minecraft.getInstance().getBlockEntityRenderDispatcher().getRenderer(be);
-                                if (renderer != null) {
-                                    renderer.render(be, ClientTicks.partialTicks, ms, buffers, 0xF000F0, OverlayTexture.NO_OVERLAY);
-                                }
-                            } catch (Exception e) {
-                                erroredBlockEntities.add(be);
-                                Modonomicon.LOG.error("Error rendering block entity", e);
-                            }
-                            ms.popPose();
-                        }
-                    }
+        //block entities are not part of the ghost mesh
+        var blockEntities = ghostMesh.getBlockEntities();
+        for (int i = blockEntities.nextSetBit(0); i >= 0; i = blockEntities.nextSetBit(i + 1)) {
+            Multiblock.SimulateResult r = results.get(i);
+            BlockState renderState = ghostMesh.getBakedState(i);
 
-                    if (air) {
-                        airFilled++;
+            var be = MultiblockBlockEntityCache.get().get(BLOCK_ENTITY_OWNER, r.getWorldPosition(), renderState);
+            if (be != null && !erroredBlockEntities.contains(be)) {
+                be.setLevel(mc.level);
+
+                // fake cached state in case the renderer checks it as we don't want to query the actual world
+                be.setBlockState(renderState);
+
+                ms.pushPose();
+                var bePos = r.getWorldPosition();
+                ms.translate(bePos.getX(), bePos.getY(), bePos.getZ());
+
+                try {
+                    BlockEntityRenderer<BlockEntity> renderer = Minecraft.getInstance().getBlockEntityRenderDispatcher().getRenderer(be);
+                    if (renderer != null) {
+                        renderer.render(be, ClientTicks.partialTicks, ms, buffers, 0xF000F0, OverlayTexture.NO_OVERLAY);
                     }
-                } else if (!air) {
-                    blocksDone++;
+                } catch (Exception e) {
+                    erroredBlockEntities.add(be);
+                    Modonomicon.LOG.error("Error rendering block entity", e);
                 }
+                ms.popPose();
             }
         }
 
@@ -313,6 +350,13 @@ public class MultiblockPreviewRenderer {
     }
 
     public static void renderBlock(Level world, BlockState state, BlockPos pos, Multiblock multiblock, boolean isAir, float alpha, PoseStack ms) {
+        renderBlock(world, state, pos, multiblock, ms, buffers);
+    }
+
+    /**
+     * Renders the ghost geometry of a single block into the given buffers. Air is shown as a small red cube.
+     */
+    public static void renderBlock(Level world, BlockState state, BlockPos pos, Multiblock multiblock, PoseStack ms, MultiBufferSource buffers) {
         if (pos != null) {
             ms.pushPose();
             ms.translate(pos.getX(), pos.getY(), pos.getZ());
@@ -328,8 +372,6 @@ public class MultiblockPreviewRenderer {
 
             ClientServices.MULTIBLOCK.renderBlock(state, pos, multiblock, ms, buffers, world.getRandom());
 
-//            Minecraft.getInstance().getBlockRenderer().renderSingleBlock(state, ms, buffers, 0xF000F0, OverlayTexture.NO_OVERLAY);
-
             ms.popPose();
         }
     }
@@ -0,0 +1,206 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.client.render;
+
+import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
+import com.klikli_dev.modonomicon.multiblock.matcher.DisplayOnlyMatcher;
+import com.klikli_dev.modonomicon.multiblock.matcher.Matchers;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Rotation;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * The simulation of a multiblock for the in-world preview, for a fixed anchor and rotation.
+ * <p>
+ * Each position is tested once, afterwards only positions that were marked dirty (by client block updates) are tested
+ * again. The block counts shown in the preview HUD are updated incrementally.
+ */
+public class MultiblockPreviewSimulation {
+
+    private final Multiblock multiblock;
+    private final Level level;
+    private final BlockPos startPos;
+    private final Rotation rotation;
+    private final List<Multiblock.SimulateResult> results;
+    private final Object2IntMap<BlockPos> indices;
+
+    /**
+     * Positions that take part in the preview, that is, everything except {@link Matchers#ANY} and display only matchers.
+     */
+    private final BitSet relevant;
+    /**
+     * Relevant positions that do not count towards the total blocks, they need to be air.
+     */
+    private final BitSet air;
+    /**
+     * Relevant positions that currently do not match.
+     */
+    private final BitSet unmatched;
+    /**
+     * Relevant positions that need to be tested again.
+     */
+    private final BitSet dirty;
+
+    private final int blocks;
+    private int blocksDone;
+    private int airFilled;
+
+    public MultiblockPreviewSimulation(Multiblock multiblock, Level level, BlockPos startPos, Rotation rotation) {
+        this.multiblock = multiblock;
+        this.level = level;
+        this.startPos = startPos.immutable();
+        this.rotation = rotation;
+        this.results = List.copyOf(multiblock.simulate(level, this.startPos, rotation, true, false).getSecond());
+
+        this.indices = new Object2IntOpenHashMap<>(this.results.size());
+        this.indices.defaultReturnValue(-1);
+        this.relevant = new BitSet(this.results.size());
+        this.air = new BitSet(this.results.size());
+        this.unmatched = new BitSet(this.results.size());
+        this.dirty = new BitSet(this.results.size());
+
+        int blocks = 0;
+        for (int i = 0; i < this.results.size(); i++) {
+            var r = this.results.get(i);
+            this.indices.put(r.getWorldPosition().immutable(), i);
+
+            if (!r.getStateMatcher().equals(Matchers.ANY) && r.getStateMatcher().getType() != DisplayOnlyMatcher.TYPE) {
+                this.relevant.set(i);
+                if (r.getStateMatcher().countsTowardsTotalBlocks()) {
+                    blocks++;
+                } else {
+                    this.air.set(i);
+                }
+            }
+        }
+        this.blocks = blocks;
+
+        //nothing has been tested yet, so all relevant positions are unmatched and need to be tested
+        this.unmatched.or(this.relevant);
+        this.dirty.or(this.relevant);
+        this.airFilled = this.air.cardinality();
+    }
+
+    public boolean isFor(Multiblock multiblock, Level level, BlockPos startPos, Rotation rotation) {
+        return this.multiblock == multiblock && this.level == level && this.rotation == rotation && this.startPos.equals(startPos);
+    }
+
+    /**
+     * Marks the given world position to be tested again on the next {@link #update(Level)}.
+     */
+    public void markDirty(BlockPos pos) {
+        int index = this.indices.getInt(pos);
+        if (index >= 0 && this.relevant.get(index)) {
+            this.dirty.set(index);
+        }
+    }
+
+    /**
+     * Marks all positions within the given chunk to be tested again on the next {@link #update(Level)}.
+     */
+    public void markDirty(ChunkPos chunkPos) {
+        for (int i = this.relevant.nextSetBit(0); i >= 0; i = this.relevant.nextSetBit(i + 1)) {
+            var pos = this.results.get(i).getWorldPosition();
+            if (SectionPos.blockToSectionCoord(pos.getX()) == chunkPos.x && SectionPos.blockToSectionCoord(pos.getZ()) == chunkPos.z) {
+                this.dirty.set(i);
+            }
+        }
+    }
+
+    /**
+     * Tests all dirty positions again and updates the block counts.
+     *
+     * @return true if any position changed between matched and unmatched.
+     */
+    public boolean update(Level level) {
+        return this.update(level, index -> {
+        });
+    }
+
+    /**
+     * Tests all dirty positions again and updates the block counts.
+     *
+     * @param onChanged called with the index of each position that changed between matched and unmatched.
+     * @return true if any position changed between matched and unmatched.
+     */
+    public boolean update(Level level, IntConsumer onChanged) {
+        if (this.dirty.isEmpty()) {
+            return false;
+        }
+
+        boolean changed = false;
+        for (int i = this.dirty.nextSetBit(0); i >= 0; i = this.dirty.nextSetBit(i + 1)) {
+            boolean wasMatched = !this.unmatched.get(i);
+            boolean matched = this.results.get(i).test(level, this.rotation);
+            if (matched == wasMatched) {
+                continue;
+            }
+
+            changed = true;
+            this.unmatched.set(i, !matched);
+            onChanged.accept(i);
+            int delta = matched ? 1 : -1;
+            if (this.air.get(i)) {
+                this.airFilled -= delta;
+            } else {
+                this.blocksDone += delta;
+            }
+        }
+        this.dirty.clear();
+        return changed;
+    }
+
+    public Multiblock getMultiblock() {
+        return this.multiblock;
+    }
+
+    public List<Multiblock.SimulateResult> getResults() {
+        return this.results;
+    }
+
+    /**
+     * @return the index of the result at the given world position, or -1 if the position is not part of the multiblock.
+     */
+    public int indexOf(BlockPos pos) {
+        return pos == null ? -1 : this.indices.getInt(pos);
+    }
+
+    /**
+     * The relevant positions that currently do not match, as indices into {@link #getResults()}.
+     */
+    public BitSet getUnmatched() {
+        return this.unmatched;
+    }
+
+    public boolean isAir(int index) {
+        return this.air.get(index);
+    }
+
+    public Rotation getRotation() {
+        return this.rotation;
+    }
+
+    public int getBlocks() {
+        return this.blocks;
+    }
+
+    public int getBlocksDone() {
+        return this.blocksDone;
+    }
+
+    public int getAirFilled() {
+        return this.airFilled;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.client.render.page;
+
+import com.klikli_dev.modonomicon.Modonomicon;
+import com.klikli_dev.modonomicon.util.EntityUtil;
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pool of the display entities shown on entity pages, keyed by the entity id string of the page (including NBT).
+ * <p>
+ * Creating an entity parses its NBT and runs the full entity constructor, which is too expensive to do every time a
+ * page is flipped to. Entities are created for one level only, the pool is emptied as soon as the client level changes.
+ * <p>
+ * Entities of pages that are not shown yet are preloaded one per client tick, so flipping a page does not create
+ * several entities in the same frame.
+ */
+public class BookEntityPagePool {
+
+    private static final int MAX_ENTRIES = 64;
+    /**
+     * Preloads kept waiting, the oldest are dropped first. Only the pages around the open one are worth preloading.
+     */
+    private static final int MAX_PENDING = 4;
+
+    private static final BookEntityPagePool instance = new BookEntityPagePool();
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return this.size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Entity ids to preload, oldest first.
+     */
+    private final Set<String> pending = new LinkedHashSet<>();
+
+    private Level level;
+
+    private BookEntityPagePool() {
+    }
+
+    public static BookEntityPagePool get() {
+        return instance;
+    }
+
+    /**
+     * Gets the pooled display entity for the given entity id, creating it if necessary.
+     *
+     * @param entityId the entity id string of the page, optionally followed by NBT.
+     * @return the entry, check {@link Entry#errored()} before using the entity.
+     */
+    public Entry get(String entityId, Level level) {
+        this.setLevel(level);
+        this.pending.remove(entityId);
+
+        var entry = this.entries.get(entityId);
+        if (entry == null || (!entry.errored() && !entry.entity().isAlive())) {
+            entry = this.create(entityId, level);
+            this.entries.put(entityId, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Schedules the display entity for the given entity id to be created ahead of time, on one of the next client
+     * ticks, e.g. for pages next to the open ones.
+     */
+    public void preload(String entityId, Level level) {
+        if (level == null) {
+            return;
+        }
+
+        this.setLevel(level);
+        if (this.entries.containsKey(entityId)) {
+            return;
+        }
+
+        //move it to the end, it is wanted again now
+        this.pending.remove(entityId);
+        this.pending.add(entityId);
+        if (this.pending.size() > MAX_PENDING) {
+            var iterator = this.pending.iterator();
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    public void clear() {
+        this.entries.clear();
+        this.pending.clear();
+        this.level = null;
+    }
+
+    public void onClientTick(Minecraft mc) {
+        //do not hold on to entities (and thereby the level) of a level that is no longer active
+        if (this.level != null && mc.level != this.level) {
+            this.clear();
+        }
+
+        if (!this.pending.isEmpty()) {
+            var iterator = this.pending.iterator();
+            var entityId = iterator.next();
+            iterator.remove();
+            this.get(entityId, this.level);
+        }
+    }
+
+    private void setLevel(Level level) {
+        if (level != this.level) {
+            this.clear();
+            this.level = level;
+        }
+    }
+
+    private Entry create(String entityId, Level level) {
+        try {
+            var entity = EntityUtil.getEntityLoader(entityId).apply(level);
+
+            float width = entity.getBbWidth();
+            float height = entity.getBbHeight();
+
+            float entitySize = Math.max(1F, Math.max(width, height));
+
+            return new Entry(entity, 100F / entitySize * 0.8F, Math.max(height, entitySize) * 0.5F, false);
+        } catch (Exception e) {
+            Modonomicon.LOG.error("Failed to load entity", e);
+            return new Entry(null, 0, 0, true);
+        }
+    }
+
+    /**
+     * A pooled display entity.
+     *
+     * @param renderScale  the scale to render the entity with, before applying the page scale.
+     * @param renderOffset the vertical offset to render the entity with, before applying the page offset.
+     * @param errored      true if the entity could not be created, the failure is cached as well to avoid logging it
+     *                     on every page flip.
+     */
+    public record Entry(@Nullable Entity entity, float renderScale, float renderOffset, boolean errored) {
+    }
+}
@@ -6,12 +6,10 @@
 
 package com.klikli_dev.modonomicon.client.render.page;
 
-import com.klikli_dev.modonomicon.Modonomicon;
 import com.klikli_dev.modonomicon.api.ModonomiconConstants.I18n.Gui;
 import com.klikli_dev.modonomicon.book.page.BookEntityPage;
 import com.klikli_dev.modonomicon.client.ClientTicks;
 import com.klikli_dev.modonomicon.client.gui.book.BookContentScreen;
-import com.klikli_dev.modonomicon.util.EntityUtil;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.math.Axis;
 import net.minecraft.client.Minecraft;
@@ -51,23 +49,12 @@ public class BookEntityPageRenderer extends BookPageRenderer<BookEntityPage> imp
     }
 
     private void loadEntity(Level world) {
-        if (!this.errored && (this.entity == null || !this.entity.isAlive())) {
-            try {
-                var entityLoader = EntityUtil.getEntityLoader(this.page.getEntityId());
-                this.entity = entityLoader.apply(world);
-
-                float width = this.entity.getBbWidth();
-                float height = this.entity.getBbHeight();
-
-                float entitySize = Math.max(1F, Math.max(width, height));
-
-                this.renderScale = 100F / entitySize * 0.8F * this.getPage().getScale();
-                this.renderOffset = Math.max(height, entitySize) * 0.5F + this.getPage().getOffset();
-            } catch (Exception e) {
-                this.errored = true;
-                Modonomicon.LOG.error("Failed to load entity", e);
-            }
-        }
+        //entities are pooled across page renderers, so flipping back and forth does not create them again
+        var entry = BookEntityPagePool.get().get(this.page.getEntityId(), world);
+        this.errored = entry.errored();
+        this.entity = entry.entity();
+        this.renderScale = entry.renderScale() * this.getPage().getScale();
+        this.renderOffset = entry.renderOffset() + this.getPage().getOffset();
     }
 
     @Override
@@ -10,8 +10,13 @@ import com.klikli_dev.modonomicon.book.page.BookImagePage;
 import com.klikli_dev.modonomicon.client.gui.book.BookContentScreen;
 import com.klikli_dev.modonomicon.client.gui.book.button.SmallArrowButton;
 import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferUploader;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.Tesselator;
+import com.mojang.blaze3d.vertex.VertexFormat;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
+import net.minecraft.client.renderer.GameRenderer;
 import net.minecraft.network.chat.Style;
 import org.jetbrains.annotations.Nullable;
 
@@ -30,6 +35,13 @@ public class BookImagePageRenderer extends BookPageRenderer<BookImagePage> imple
         } else {
             this.index++;
         }
+        this.prefetchNextImage();
+    }
+
+    protected void prefetchNextImage() {
+        if (this.index + 1 < this.page.getImages().length) {
+            BookImageTextureCache.get().prefetch(this.page.getImages()[this.index + 1]);
+        }
     }
 
     @Override
@@ -41,6 +53,9 @@ public class BookImagePageRenderer extends BookPageRenderer<BookImagePage> imple
 
         this.addButton(new SmallArrowButton(parentScreen, x, y, true, () -> this.index > 0, this::handleButtonArrow));
         this.addButton(new SmallArrowButton(parentScreen, x + 10, y, false, () -> this.index < this.page.getImages().length - 1, this::handleButtonArrow));
+
+        BookImageTextureCache.get().prefetch(this.page.getImages()[this.index]);
+        this.prefetchNextImage();
     }
 
     @Override
@@ -55,11 +70,14 @@ public class BookImagePageRenderer extends BookPageRenderer<BookImagePage> imple
         int y = 7;
         RenderSystem.setShaderColor(1F, 1F, 1F, 1F);
         RenderSystem.enableBlend();
-        guiGraphics.pose().pushPose();
-        guiGraphics.pose().scale(0.5F, 0.5F, 1);
-        guiGraphics.blit(this.page.getImages()[this.index], x * 2 + 6, y * 2 + 6, 0, 0, 200, 200);
-        guiGraphics.pose().scale(2F, 2F, 1);
-        guiGraphics.pose().popPose();
+        //nothing to draw while the image is still loading
+        int texture = BookImageTextureCache.get().get(this.page.getImages()[this.index]);
+        if (texture != BookImageTextureCache.NO_TEXTURE) {
+            guiGraphics.pose().pushPose();
+            guiGraphics.pose().scale(0.5F, 0.5F, 1);
+            this.blitImage(guiGraphics, texture, x * 2 + 6, y * 2 + 6);
+            guiGraphics.pose().popPose();
+        }
 
         if (this.page.hasBorder()) {
             BookContentScreen.drawFromTexture(guiGraphics, this.getPage().getBook(), x, y, 405, 149, 106, 106);
@@ -78,6 +96,25 @@ public class BookImagePageRenderer extends BookPageRenderer<BookImagePage> imple
             this.parentScreen.renderComponentHoverEffect(guiGraphics, style, mouseX, mouseY);
     }
 
+    /**
+     * Like {@link GuiGraphics#blit(net.minecraft.resources.ResourceLocation, int, int, int, int, int, int)} for the
+     * 200x200 pixels of the 256x256 image that are shown, but for a texture that is not registered with the texture
+     * manager.
+     */
+    protected void blitImage(GuiGraphics guiGraphics, int texture, int x, int y) {
+        float uv = 200 / 256F;
+        RenderSystem.setShaderTexture(0, texture);
+        RenderSystem.setShader(GameRenderer::getPositionTexShader);
+        var matrix = guiGraphics.pose().last().pose();
+        var builder = Tesselator.getInstance().getBuilder();
+        builder.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX);
+        builder.vertex(matrix, x, y, 0).uv(0, 0).endVertex();
+        builder.vertex(matrix, x, y + 200, 0).uv(0, uv).endVertex();
+        builder.vertex(matrix, x + 200, y + 200, 0).uv(uv, uv).endVertex();
+        builder.vertex(matrix, x + 200, y, 0).uv(uv, 0).endVertex();
+        BufferUploader.drawWithShader(builder.end());
+    }
+
     @Nullable
     @Override
     public Style getClickedComponentStyleAt(double pMouseX, double pMouseY) {
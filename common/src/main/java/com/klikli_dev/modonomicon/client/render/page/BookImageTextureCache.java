@@ -0,0 +1,245 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.client.render.page;
+
+import com.klikli_dev.modonomicon.Modonomicon;
+import com.klikli_dev.modonomicon.client.ClientTicks;
+import com.klikli_dev.modonomicon.platform.ClientServices;
+import com.mojang.blaze3d.platform.NativeImage;
+import com.mojang.blaze3d.platform.TextureUtil;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.MipmapGenerator;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.util.Mth;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Streams the images of image pages: they are loaded in the background on first use, downscaled to the resolution
+ * they are displayed at, and uploaded with mipmaps. Loaded images and uploaded textures are kept in a least recently
+ * used cache, limited by {@link com.klikli_dev.modonomicon.platform.services.ClientConfigHelper#imageTextureBudgetMb()}.
+ * Images that were drawn in the last tick are never unloaded, even if they do not fit into the budget together.
+ * <p>
+ * The textures are not registered with the texture manager, the cache owns their GL ids. It is cleared when resources
+ * are reloaded, see {@link com.klikli_dev.modonomicon.data.BookDataManager.Client}.
+ * <p>
+ * Only to be used on the render thread.
+ */
+public class BookImageTextureCache {
+
+    /**
+     * Returned by {@link #get(ResourceLocation)} if there is nothing to draw.
+     */
+    public static final int NO_TEXTURE = -1;
+
+    /**
+     * Image page textures are authored at 256x256, and displayed at half size, see {@link BookImagePageRenderer}.
+     */
+    private static final int AUTHORED_SIZE = 256;
+    private static final float DISPLAY_SCALE = 0.5F;
+
+    private static final int MAX_MIPMAP_LEVEL = 4;
+    private static final int MIN_MIPMAP_SIZE = 16;
+
+    private static final BookImageTextureCache instance = new BookImageTextureCache();
+
+    /**
+     * In access order, the first entry is the least recently used.
+     */
+    private final Map<ResourceLocation, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+
+    private BookImageTextureCache() {
+    }
+
+    public static BookImageTextureCache get() {
+        return instance;
+    }
+
+    private static NativeImage[] load(ResourceManager resourceManager, ResourceLocation image, int targetSize) {
+        NativeImage source;
+        try (var stream = resourceManager.open(image)) {
+            source = NativeImage.read(stream);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+
+        var base = source;
+        float scale = targetSize / (float) Math.max(source.getWidth(), source.getHeight());
+        if (scale < 1) {
+            base = new NativeImage(Math.max(1, Math.round(source.getWidth() * scale)), Math.max(1, Math.round(source.getHeight() * scale)), false);
+            source.resizeSubRectTo(0, 0, source.getWidth(), source.getHeight(), base);
+            source.close();
+        }
+
+        int mipmapLevel = 0;
+        while (mipmapLevel < MAX_MIPMAP_LEVEL && Math.min(base.getWidth(), base.getHeight()) >> (mipmapLevel + 1) >= MIN_MIPMAP_SIZE) {
+            mipmapLevel++;
+        }
+        return MipmapGenerator.generateMipLevels(new NativeImage[]{base}, mipmapLevel);
+    }
+
+    private static void close(NativeImage[] mipmaps) {
+        for (var mipmap : mipmaps) {
+            mipmap.close();
+        }
+    }
+
+    /**
+     * @return the GL id of the texture to draw the given image with, or {@link #NO_TEXTURE} if it is still loading or
+     * could not be loaded.
+     */
+    public int get(ResourceLocation image) {
+        var entry = this.entries.get(image);
+        if (entry == null) {
+            this.prefetch(image);
+            return NO_TEXTURE;
+        }
+
+        entry.lastUsedTick = ClientTicks.ticks;
+        if (entry.textureId == NO_TEXTURE && !entry.failed && entry.loading.isDone()) {
+            this.upload(entry);
+        }
+        return entry.textureId;
+    }
+
+    /**
+     * Starts loading the given image in the background, if it is not loaded yet.
+     */
+    public void prefetch(ResourceLocation image) {
+        if (this.entries.containsKey(image)) {
+            return;
+        }
+
+        //the size the displayed area of the image has on screen, rounded up to a power of two
+        var minecraft = Minecraft.getInstance();
+        int targetSize = Mth.smallestEncompassingPowerOfTwo(Mth.ceil(AUTHORED_SIZE * DISPLAY_SCALE * minecraft.getWindow().getGuiScale()));
+        var resourceManager = minecraft.getResourceManager();
+        var entry = new Entry(image, CompletableFuture.supplyAsync(() -> load(resourceManager, image, targetSize), Util.backgroundExecutor()));
+        this.entries.put(image, entry);
+        //count loaded images against the budget right away, even if they are never displayed
+        entry.loading.thenAcceptAsync(mipmaps -> this.onLoaded(entry, mipmaps), minecraft);
+    }
+
+    /**
+     * Unloads all images, e.g. because resources were reloaded.
+     */
+    public void clear() {
+        for (var entry : this.entries.values()) {
+            this.release(entry);
+        }
+        this.entries.clear();
+        this.usedBytes = 0;
+    }
+
+    private static long sizeOf(NativeImage[] mipmaps) {
+        long bytes = 0;
+        for (var mipmap : mipmaps) {
+            bytes += (long) mipmap.getWidth() * mipmap.getHeight() * 4;
+        }
+        return bytes;
+    }
+
+    private void onLoaded(Entry entry, NativeImage[] mipmaps) {
+        if (entry.released || entry.bytes > 0) {
+            return; //already evicted, or already uploaded
+        }
+
+        entry.bytes = sizeOf(mipmaps);
+        this.usedBytes += entry.bytes;
+        this.evict(entry);
+    }
+
+    private void upload(Entry entry) {
+        NativeImage[] mipmaps;
+        try {
+            mipmaps = entry.loading.join();
+        } catch (CompletionException e) {
+            Modonomicon.LOG.warn("Failed to load book image {}", entry.image, e);
+            //nothing is drawn, and it is not tried again until resources are reloaded
+            entry.failed = true;
+            return;
+        }
+
+        if (entry.bytes == 0) {
+            //uploaded before onLoaded ran
+            entry.bytes = sizeOf(mipmaps);
+            this.usedBytes += entry.bytes;
+        }
+
+        var base = mipmaps[0];
+        entry.textureId = TextureUtil.generateTextureId();
+        //binds the texture, the mipmaps are uploaded to the bound texture
+        TextureUtil.prepareImage(entry.textureId, mipmaps.length - 1, base.getWidth(), base.getHeight());
+        for (int level = 0; level < mipmaps.length; level++) {
+            var mipmap = mipmaps[level];
+            //closes the image after uploading
+            mipmap.upload(level, 0, 0, 0, 0, mipmap.getWidth(), mipmap.getHeight(), true, true, mipmaps.length > 1, true);
+        }
+
+        this.evict(entry);
+    }
+
+    /**
+     * Releases least recently used textures until the budget is met again, except for the given one and the ones drawn
+     * in the last tick. Otherwise, images that are shown together but do not fit into the budget would evict each other
+     * and be loaded again every frame.
+     */
+    private void evict(Entry keep) {
+        long budget = ClientServices.CLIENT_CONFIG.imageTextureBudgetMb() * 1024L * 1024L;
+        var iterator = this.entries.values().iterator();
+        while (this.usedBytes > budget && iterator.hasNext()) {
+            var entry = iterator.next();
+            if (entry != keep && entry.bytes > 0 && entry.lastUsedTick < ClientTicks.ticks - 1) {
+                this.release(entry);
+                iterator.remove();
+            }
+        }
+    }
+
+    private void release(Entry entry) {
+        entry.released = true;
+        if (entry.textureId != NO_TEXTURE) {
+            TextureUtil.releaseTextureId(entry.textureId);
+            entry.textureId = NO_TEXTURE;
+        } else if (!entry.failed) {
+            //still loading, or loaded but never uploaded
+            entry.loading.thenAccept(BookImageTextureCache::close);
+        }
+        this.usedBytes -= entry.bytes;
+    }
+
+    private static class Entry {
+        private final ResourceLocation image;
+        private final CompletableFuture<NativeImage[]> loading;
+        /**
+         * Set once uploaded.
+         */
+        private int textureId = NO_TEXTURE;
+        /**
+         * Set if loading failed.
+         */
+        private boolean failed;
+        /**
+         * Size of the loaded images, counted once loaded.
+         */
+        private long bytes;
+        private long lastUsedTick = Long.MIN_VALUE;
+        private boolean released;
+
+        public Entry(ResourceLocation image, CompletableFuture<NativeImage[]> loading) {
+            this.image = image;
+            this.loading = loading;
+        }
+    }
+}
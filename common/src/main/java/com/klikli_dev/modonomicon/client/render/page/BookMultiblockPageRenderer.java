@@ -13,31 +13,26 @@ import com.klikli_dev.modonomicon.book.page.BookMultiblockPage;
 import com.klikli_dev.modonomicon.client.ClientTicks;
 import com.klikli_dev.modonomicon.client.gui.book.BookContentScreen;
 import com.klikli_dev.modonomicon.client.gui.book.button.VisualizeButton;
+import com.klikli_dev.modonomicon.client.render.BakedMultiblock;
 import com.klikli_dev.modonomicon.client.render.MultiblockPreviewRenderer;
 import com.klikli_dev.modonomicon.multiblock.AbstractMultiblock;
-import com.klikli_dev.modonomicon.platform.ClientServices;
+import com.klikli_dev.modonomicon.multiblock.MultiblockBlockEntityCache;
 import com.klikli_dev.modonomicon.platform.Services;
 import com.mojang.blaze3d.systems.RenderSystem;
-import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.math.Axis;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.screens.Screen;
-import net.minecraft.client.multiplayer.ClientLevel;
-import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.blockentity.BlockEntityRenderer;
 import net.minecraft.client.renderer.texture.OverlayTexture;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Vec3i;
 import net.minecraft.network.chat.Style;
-import net.minecraft.util.RandomSource;
-import net.minecraft.world.level.block.EntityBlock;
 import net.minecraft.world.level.block.Rotation;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.phys.BlockHitResult;
 import org.jetbrains.annotations.Nullable;
 import org.joml.Matrix4f;
 import org.joml.Vector4f;
@@ -46,11 +41,10 @@ import java.util.*;
 
 public class BookMultiblockPageRenderer extends BookPageRenderer<BookMultiblockPage> implements PageWithTextRenderer {
 
-    private static final RandomSource randomSource = RandomSource.createNewThreadLocalInstance();
-    private final Map<BlockPos, BlockEntity> blockEntityCache = new HashMap<>();
     private final Set<BlockEntity> erroredBlockEntities = Collections.newSetFromMap(new WeakHashMap<>());
 
     protected Pair<BlockPos, Collection<SimulateResult>> multiblockSimulation;
+    protected BakedMultiblock bakedMultiblock;
     protected Button visualizeButton;
 
     public BookMultiblockPageRenderer(BookMultiblockPage page) {
@@ -132,48 +126,36 @@ public class BookMultiblockPageRenderer extends BookPageRenderer<BookMultiblockP
 
         var buffers = mc.renderBuffers().bufferSource();
 
-        BlockPos checkPos = null;
-        if (mc.hitResult instanceof BlockHitResult blockRes) {
-            checkPos = blockRes.getBlockPos().relative(blockRes.getDirection());
-        }
-
         guiGraphics.pose().pushPose();
         RenderSystem.setShaderColor(1F, 1F, 1F, 1F);
         guiGraphics.pose().translate(0, 0, -1);
 
-        for (Multiblock.SimulateResult r : this.multiblockSimulation.getSecond()) {
-            float alpha = 0.3F;
-            if (r.getWorldPosition().equals(checkPos)) {
-                alpha = 0.6F + (float) (Math.sin(ClientTicks.total * 0.3F) + 1F) * 0.1F;
-            }
-
-            BlockState renderState = r.getStateMatcher().getDisplayedState(ClientTicks.ticks).rotate(facingRotation);
-
-            this.renderBlock(buffers, level, renderState, r.getWorldPosition(), alpha, guiGraphics.pose());
+        //the static block geometry is baked once, only block entities are rendered each frame
+        this.bakedMultiblock.render(guiGraphics.pose(), ClientTicks.ticks);
 
-            if (renderState.getBlock() instanceof EntityBlock eb) {
-                var be = this.blockEntityCache.computeIfAbsent(r.getWorldPosition().immutable(), p -> eb.newBlockEntity(p, renderState));
-                if (be != null && !this.erroredBlockEntities.contains(be)) {
-                    be.setLevel(mc.level);
+        for (var blockEntity : this.bakedMultiblock.getBlockEntities(ClientTicks.ticks)) {
+            var bePos = blockEntity.getFirst();
+            var renderState = blockEntity.getSecond();
+            var be = MultiblockBlockEntityCache.get().get(this, bePos, renderState);
+            if (be != null && !this.erroredBlockEntities.contains(be)) {
+                be.setLevel(mc.level);
 
-                    // fake cached state in case the renderer checks it as we don't want to query the actual world
-                    be.setBlockState(renderState);
+                // fake cached state in case the renderer checks it as we don't want to query the actual world
+                be.setBlockState(renderState);
 
-                    guiGraphics.pose().pushPose();
-                    var bePos = r.getWorldPosition();
-                    guiGraphics.pose().translate(bePos.getX(), bePos.getY(), bePos.getZ());
+                guiGraphics.pose().pushPose();
+                guiGraphics.pose().translate(bePos.getX(), bePos.getY(), bePos.getZ());
 
-                    try {
-                        BlockEntityRenderer<BlockEntity> renderer = Minecraft.getInstance().getBlockEntityRenderDispatcher().getRenderer(be);
-                        if (renderer != null) {
-                            renderer.render(be, ClientTicks.partialTicks, guiGraphics.pose(), buffers, 0xF000F0, OverlayTexture.NO_OVERLAY);
-                        }
-                    } catch (Exception e) {
-                        this.erroredBlockEntities.add(be);
-                        Modonomicon.LOG.error("Error rendering block entity", e);
+                try {
+                    BlockEntityRenderer<BlockEntity> renderer = Minecraft.getInstance().getBlockEntityRenderDispatcher().getRenderer(be);
+                    if (renderer != null) {
+                        renderer.render(be, ClientTicks.partialTicks, guiGraphics.pose(), buffers, 0xF000F0, OverlayTexture.NO_OVERLAY);
                     }
-                    guiGraphics.pose().popPose();
+                } catch (Exception e) {
+                    this.erroredBlockEntities.add(be);
+                    Modonomicon.LOG.error("Error rendering block entity", e);
                 }
+                guiGraphics.pose().popPose();
             }
         }
         guiGraphics.pose().popPose();
@@ -182,34 +164,42 @@ public class BookMultiblockPageRenderer extends BookPageRenderer<BookMultiblockP
 
     }
 
-    private void renderBlock(MultiBufferSource.BufferSource buffers, ClientLevel level, BlockState state, BlockPos pos, float alpha, PoseStack ps) {
-        if (pos != null) {
-            ps.pushPose();
-            ps.translate(pos.getX(), pos.getY(), pos.getZ());
-
-            ClientServices.MULTIBLOCK.renderBlock(state, pos, this.page.getMultiblock(), ps, buffers, randomSource);
-
-            ps.popPose();
-        }
-    }
-
     @Override
     public int getTextY() {
         //text is always below multiblock, and we don't shift based on multiblock name (unlike title for text pages)
         return 115;
     }
 
+    @Override
+    protected void prepare() {
+        //simulating without a level does not touch any shared state, so it is safe to do in the background
+        this.multiblockSimulation = this.page.getMultiblock().simulate(null, BlockPos.ZERO, Rotation.NONE, true, true);
+    }
+
     @Override
     public void onBeginDisplayPage(BookContentScreen parentScreen, int left, int top) {
         super.onBeginDisplayPage(parentScreen, left, top);
 
-        this.multiblockSimulation = this.page.getMultiblock().simulate(null, BlockPos.ZERO, Rotation.NONE, true, true);
+        //level is needed for tinting while baking
+        this.page.getMultiblock().setLevel(this.mc.level);
+        this.bakedMultiblock = new BakedMultiblock(this.page.getMultiblock(), this.multiblockSimulation.getSecond(), Rotation.NONE);
 
         if (this.page.showVisualizeButton()) {
             this.addButton(this.visualizeButton = new VisualizeButton(this.parentScreen, 13, 102, this::handleButtonVisualize));
         }
     }
 
+    @Override
+    public void onEndDisplayPage(BookContentScreen parentScreen) {
+        super.onEndDisplayPage(parentScreen);
+
+        if (this.bakedMultiblock != null) {
+            this.bakedMultiblock.close();
+            this.bakedMultiblock = null;
+        }
+        MultiblockBlockEntityCache.get().release(this);
+    }
+
     @Override
     public void render(GuiGraphics guiGraphics, int mouseX, int mouseY, float ticks) {
 
@@ -12,6 +12,8 @@ import com.klikli_dev.modonomicon.book.RenderedBookTextHolder;
 import com.klikli_dev.modonomicon.book.error.BookErrorManager;
 import com.klikli_dev.modonomicon.book.page.BookPage;
 import com.klikli_dev.modonomicon.client.gui.book.BookContentScreen;
+import com.klikli_dev.modonomicon.client.gui.book.BookDebugOverlay;
+import com.klikli_dev.modonomicon.client.gui.book.BookDebugOverlay.Phase;
 import com.klikli_dev.modonomicon.client.gui.book.markdown.MarkdownComponentRenderUtils;
 import com.klikli_dev.modonomicon.data.BookDataManager;
 import com.klikli_dev.modonomicon.util.GuiGraphicsExt;
@@ -36,6 +38,7 @@ public abstract class BookPageRenderer<T extends BookPage> {
     protected Font font;
 
     private List<Button> buttons = new ArrayList<>();
+    private boolean prepared;
 
 
     public BookPageRenderer(T page) {
@@ -46,6 +49,7 @@ public abstract class BookPageRenderer<T extends BookPage> {
      * Will render the given BookTextHolder as (left-aligned) content text. Will automatically handle markdown.
      */
     public static void renderBookTextHolder(GuiGraphics guiGraphics, BookTextHolder text, Font font, int x, int y, int width) {
+        BookDebugOverlay.get().begin(Phase.TEXT);
         if (text.hasComponent()) {
             //if it is a component, we draw it directly
             for (FormattedCharSequence formattedcharsequence : font.split(text.getComponent(), width)) {
@@ -66,6 +70,7 @@ public abstract class BookPageRenderer<T extends BookPage> {
         } else {
             Modonomicon.LOG.warn("BookTextHolder with String {} has no component, but is not rendered to markdown either.", text.getString());
         }
+        BookDebugOverlay.get().end(Phase.TEXT);
     }
 
     /**
@@ -80,6 +85,28 @@ public abstract class BookPageRenderer<T extends BookPage> {
         this.top = top;
 
         this.buttons = new ArrayList<>();
+
+        this.ensurePrepared();
+    }
+
+    /**
+     * Prepares everything the page needs that does not depend on the screen, e.g. simulating a multiblock.
+     * <p>
+     * For pages of the neighbouring spreads this is called on a background thread, before the page is displayed,
+     * otherwise from {@link #onBeginDisplayPage(BookContentScreen, int, int)}. Must not touch GL, widgets or the level.
+     */
+    protected void prepare() {
+
+    }
+
+    /**
+     * Calls {@link #prepare()}, unless that already happened.
+     */
+    public synchronized void ensurePrepared() {
+        if (!this.prepared) {
+            this.prepare();
+            this.prepared = true;
+        }
     }
 
     public T getPage() {
@@ -117,6 +144,7 @@ public abstract class BookPageRenderer<T extends BookPage> {
      * Will render the given BookTextHolder as (centered) title.
      */
     public void renderTitle(GuiGraphics guiGraphics, BookTextHolder title, boolean showTitleSeparator, int x, int y) {
+        BookDebugOverlay.get().begin(Phase.TEXT);
 
         guiGraphics.pose().pushPose();
 
@@ -162,6 +190,8 @@ public abstract class BookPageRenderer<T extends BookPage> {
 
         if (showTitleSeparator)
             BookContentScreen.drawTitleSeparator(guiGraphics, this.page.getBook(), x, y + 12);
+
+        BookDebugOverlay.get().end(Phase.TEXT);
     }
 
     public abstract void render(GuiGraphics guiGraphics, int mouseX, int mouseY, float ticks);
@@ -24,6 +24,18 @@ public abstract class BookRecipePageRenderer<R extends Recipe<?>, T extends Book
         super(page);
     }
 
+    @Override
+    protected void prepare() {
+        //resolve the displayed stacks up front, instead of on the first frame
+        for (var recipe : new Recipe<?>[]{this.page.getRecipe1(), this.page.getRecipe2()}) {
+            if (recipe != null) {
+                for (var ingredient : recipe.getIngredients()) {
+                    DisplayStackCache.get().getItems(ingredient);
+                }
+            }
+        }
+    }
+
     @Override
     public void render(GuiGraphics guiGraphics, int mouseX, int mouseY, float ticks) {
         int recipeX = X;
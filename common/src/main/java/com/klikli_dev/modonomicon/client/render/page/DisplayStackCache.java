@@ -0,0 +1,57 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.client.render.page;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+
+import java.util.Arrays;
+
+/**
+ * The renderable stacks of recipe ingredients shown on book pages, resolved and filtered once instead of every frame.
+ * Pages cycle through the returned arrays by index.
+ * <p>
+ * Only ingredients are cached: they are owned by recipes and their stacks do not change until tags or recipes are
+ * synced. Keys are held weakly and compared by identity, so entries go away with the recipes that own them. Everything
+ * is resolved again after item tags or recipes are synced, or the stacks not to render change.
+ */
+public class DisplayStackCache {
+
+    private static final ItemStack[] NO_ITEMS = new ItemStack[0];
+
+    private static final DisplayStackCache instance = new DisplayStackCache();
+
+    private final Cache<Ingredient, ItemStack[]> items = CacheBuilder.newBuilder().weakKeys().build();
+
+    private DisplayStackCache() {
+    }
+
+    public static DisplayStackCache get() {
+        return instance;
+    }
+
+    /**
+     * @return the renderable stacks of the ingredient. Must not be modified.
+     */
+    public ItemStack[] getItems(Ingredient ingredient) {
+        var stacks = this.items.getIfPresent(ingredient);
+        if (stacks == null) {
+            stacks = PageRendererRegistry.filterRenderableItemStacks(Arrays.asList(ingredient.getItems())).toArray(NO_ITEMS);
+            this.items.put(ingredient, stacks);
+        }
+        return stacks;
+    }
+
+    /**
+     * Called when item tags or recipes are synced, or the stacks not to render change.
+     */
+    public void invalidate() {
+        this.items.invalidateAll();
+    }
+}
@@ -75,6 +75,7 @@ public class PageRendererRegistry {
      */
     public static void registerItemStackNotToRender(ItemStack stack) {
         ITEMS_NOT_TO_RENDER.add(stack.getItem());
+        DisplayStackCache.get().invalidate();
     }
 
     /**
@@ -83,6 +84,7 @@ public class PageRendererRegistry {
      */
     public static void registerFluidStackNotToRender(FluidHolder stack) {
         FLUIDS_NOT_TO_RENDER.add(stack.getFluid());
+        DisplayStackCache.get().invalidate();
     }
 
     /**
@@ -23,6 +23,9 @@ import com.klikli_dev.modonomicon.book.conditions.BookEntryReadCondition;
 import com.klikli_dev.modonomicon.book.conditions.BookNoneCondition;
 import com.klikli_dev.modonomicon.book.error.BookErrorManager;
 import com.klikli_dev.modonomicon.client.gui.book.markdown.BookTextRenderer;
+import com.klikli_dev.modonomicon.client.render.BookIconAtlas;
+import com.klikli_dev.modonomicon.client.render.page.BookImageTextureCache;
+import com.klikli_dev.modonomicon.client.render.page.DisplayStackCache;
 import com.klikli_dev.modonomicon.networking.Message;
 import com.klikli_dev.modonomicon.networking.SyncBookDataMessage;
 import com.klikli_dev.modonomicon.platform.ClientServices;
@@ -102,8 +105,10 @@ public class BookDataManager extends SimpleJsonResourceReloadListener {
 
     public void onRecipesUpdated(Level level) {
         Client.get().resetUseFallbackFont();
+        DisplayStackCache.get().invalidate();
         this.tryBuildBooks(level);
         this.prerenderMarkdown();
+        BookIconAtlas.get().rebuild(this.books.values());
     }
 
     public void preLoad() {
@@ -156,13 +161,15 @@ public class BookDataManager extends SimpleJsonResourceReloadListener {
             if (book.autoAddReadConditions()) {
                 for (var entry : book.getEntries().values()) {
                     if (entry.getCondition().getType().equals(Condition.NONE)) {
-                        if (entry.getParents().size() == 1) {
-                            entry.setCondition(new BookEntryReadCondition(null, entry.getParents().get(0).getEntryId()));
-                        } else if (entry.getParents().size() > 1) {
-                            var conditions = entry.getParents().stream().map(parent ->
-                                    new BookEntryReadCondition(null, parent.getEntryId())).toList();
-                            var andCondition = new BookAndCondition(null, conditions.toArray(new BookEntryReadCondition[0]));
-                            entry.setCondition(andCondition);
+                        var parents = entry.getResolvedParents();
+                        if (parents.length == 1) {
+                            entry.setCondition(new BookEntryReadCondition(null, parents[0].getEntryId()));
+                        } else if (parents.length > 1) {
+                            var conditions = new BookEntryReadCondition[parents.length];
+                            for (int i = 0; i < parents.length; i++) {
+                                conditions[i] = new BookEntryReadCondition(null, parents[i].getEntryId());
+                            }
+                            entry.setCondition(new BookAndCondition(null, conditions));
                         }
                     }
                 }
@@ -417,6 +424,9 @@ public class BookDataManager extends SimpleJsonResourceReloadListener {
         @Override
         protected void apply(Map<ResourceLocation, JsonElement> object, ResourceManager resourceManager, ProfilerFiller profiler) {
             this.resetUseFallbackFont();
+            //the images may have changed, they are loaded again when displayed
+            BookImageTextureCache.get().clear();
+            BookIconAtlas.get().onResourcesReloaded();
         }
     }
 }
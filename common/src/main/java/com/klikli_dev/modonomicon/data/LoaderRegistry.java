@@ -6,7 +6,6 @@
 
 package com.klikli_dev.modonomicon.data;
 
-import com.klikli_dev.modonomicon.Modonomicon;
 import com.klikli_dev.modonomicon.api.ModonomiconConstants.Data.Condition;
 import com.klikli_dev.modonomicon.api.ModonomiconConstants.Data.Page;
 import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
@@ -97,8 +96,8 @@ public class LoaderRegistry {
     }
 
     private static void registerDefaultPredicates() {
-        registerPredicate(Matchers.AIR.getPredicateId(), (getter, pos, state) -> state.isAir());
-        registerPredicate(Modonomicon.loc("non_solid"), (getter, pos, state) -> !state.isSolid());
+        registerPredicate(Matchers.AIR_PREDICATE, (getter, pos, state) -> state.isAir());
+        registerPredicate(Matchers.NON_SOLID_PREDICATE, (getter, pos, state) -> !state.isSolid());
     }
 
 
@@ -11,6 +11,7 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.klikli_dev.modonomicon.api.ModonomiconConstants.Data;
 import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
+import com.klikli_dev.modonomicon.multiblock.MultiblockValidationCacheImpl;
 import com.klikli_dev.modonomicon.networking.Message;
 import com.klikli_dev.modonomicon.networking.SyncMultiblockDataMessage;
 import com.klikli_dev.modonomicon.platform.Services;
@@ -94,6 +95,9 @@ public class MultiblockDataManager extends SimpleJsonResourceReloadListener {
             this.multiblocks.put(multiblock.getId(), multiblock);
         }
 
+        //cached results refer to the previous multiblock instances
+        MultiblockValidationCacheImpl.get().clear();
+
         this.onLoadingComplete();
     }
 }
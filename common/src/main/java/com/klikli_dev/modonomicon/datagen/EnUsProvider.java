@@ -68,6 +68,9 @@ public class EnUsProvider extends AbstractModonomiconLanguageProvider {
 
         this.add(Gui.RECIPE_PAGE_RECIPE_MISSING, "Recipe %s is was not found! This may be an issue with the mod, or the modpack may have disabled it.");
 
+        this.add(Gui.DEBUG_OVERLAY_EXPORTED, "Book frame data exported to %s");
+        this.add(Gui.DEBUG_OVERLAY_EXPORT_FAILED, "Failed to export book frame data, see the log for details.");
+
         //Tooltip
         this.add(Tooltips.CONDITION_ADVANCEMENT, "Requires Advancement: %s");
         this.add(Tooltips.CONDITION_ENTRY_UNLOCKED, "Requires unlocked Entry: %s");
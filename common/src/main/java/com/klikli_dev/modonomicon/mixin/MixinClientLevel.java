@@ -0,0 +1,30 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.mixin;
+
+import com.klikli_dev.modonomicon.client.render.MultiblockPreviewRenderer;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientLevel.class)
+public abstract class MixinClientLevel {
+    @Inject(at = @At("HEAD"), method = "sendBlockUpdated(Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/world/level/block/state/BlockState;I)V")
+    private void sendBlockUpdated(BlockPos pos, BlockState oldState, BlockState newState, int flags, CallbackInfo info) {
+        MultiblockPreviewRenderer.onBlockChanged(pos);
+    }
+
+    @Inject(at = @At("TAIL"), method = "onChunkLoaded(Lnet/minecraft/world/level/ChunkPos;)V")
+    private void onChunkLoaded(ChunkPos chunkPos, CallbackInfo info) {
+        MultiblockPreviewRenderer.onChunkLoaded(chunkPos);
+    }
+}
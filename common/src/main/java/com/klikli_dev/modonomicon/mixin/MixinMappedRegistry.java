@@ -0,0 +1,36 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.mixin;
+
+import com.klikli_dev.modonomicon.multiblock.matcher.CompiledStateSet;
+import net.minecraft.core.MappedRegistry;
+import net.minecraft.core.registries.BuiltInRegistries;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.Map;
+
+@Mixin(MappedRegistry.class)
+public abstract class MixinMappedRegistry {
+    @Inject(at = @At("TAIL"), method = "bindTags(Ljava/util/Map;)V")
+    private void bindTags(Map<?, ?> tags, CallbackInfo info) {
+        this.onTagsChanged();
+    }
+
+    @Inject(at = @At("TAIL"), method = "resetTags()V")
+    private void resetTags(CallbackInfo info) {
+        this.onTagsChanged();
+    }
+
+    private void onTagsChanged() {
+        if ((Object) this == BuiltInRegistries.BLOCK) {
+            CompiledStateSet.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.mixin;
+
+import com.klikli_dev.modonomicon.multiblock.MultiblockValidationCacheImpl;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerLevel.class)
+public abstract class MixinServerLevel {
+    @Inject(at = @At("HEAD"), method = "unload(Lnet/minecraft/world/level/chunk/LevelChunk;)V")
+    private void unload(LevelChunk chunk, CallbackInfo info) {
+        MultiblockValidationCacheImpl.get().onChunkUnloaded((ServerLevel) (Object) this, chunk.getPos());
+    }
+}
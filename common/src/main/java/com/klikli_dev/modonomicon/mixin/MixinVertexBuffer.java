@@ -0,0 +1,25 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.mixin;
+
+import com.klikli_dev.modonomicon.client.gui.book.BookDebugOverlay;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(VertexBuffer.class)
+public abstract class MixinVertexBuffer {
+    /**
+     * Every draw call ends up here, both immediate ones through BufferUploader and baked vertex buffers.
+     */
+    @Inject(at = @At("HEAD"), method = "draw()V")
+    private void draw(CallbackInfo info) {
+        BookDebugOverlay.get().onDrawCall();
+    }
+}
@@ -10,9 +10,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
 import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
 import com.klikli_dev.modonomicon.api.multiblock.StateMatcher;
-import com.klikli_dev.modonomicon.api.multiblock.TriPredicate;
 import com.klikli_dev.modonomicon.data.LoaderRegistry;
-import com.mojang.datafixers.util.Pair;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.Vec3i;
@@ -21,7 +19,6 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.GsonHelper;
 import net.minecraft.world.level.*;
 import net.minecraft.world.level.biome.Biomes;
-import net.minecraft.world.level.block.EntityBlock;
 import net.minecraft.world.level.block.Rotation;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
@@ -30,19 +27,21 @@ import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.level.material.Fluids;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
 public abstract class AbstractMultiblock implements Multiblock {
 
-    private final Map<BlockPos, BlockEntity> blockEntityCache = new HashMap<>();
     public ResourceLocation id;
     protected int offX, offY, offZ;
     protected int viewOffX, viewOffY, viewOffZ;
     protected boolean symmetrical;
     Level level;
+    /**
+     * Built on first validation, as offsets may still change after construction.
+     */
+    private volatile MultiblockValidator validator;
 
     public static Map<Character, StateMatcher> mappingFromJson(JsonObject jsonMapping) {
         var mapping = new HashMap<Character, StateMatcher>();
@@ -95,6 +94,7 @@ public abstract class AbstractMultiblock implements Multiblock {
         this.offX = x;
         this.offY = y;
         this.offZ = z;
+        this.validator = null;
         return this.setViewOffset(x, y, z);
     }
 
@@ -144,14 +144,7 @@ public abstract class AbstractMultiblock implements Multiblock {
     @Override
     public void place(Level world, BlockPos pos, Rotation rotation) {
         this.setLevel(world);
-        this.simulate(world, pos, rotation, false, false).getSecond().forEach(r -> {
-            BlockPos placePos = r.getWorldPosition();
-            BlockState targetState = r.getStateMatcher().getDisplayedState(world.getGameTime()).rotate(rotation);
-
-            if (!targetState.isAir() && targetState.canSurvive(world, placePos) && world.getBlockState(placePos).canBeReplaced()) {
-                world.setBlockAndUpdate(placePos, targetState);
-            }
-        });
+        MultiblockPlacer.place(world, this, pos, rotation);
     }
 
     @Override
@@ -159,7 +152,8 @@ public abstract class AbstractMultiblock implements Multiblock {
         if (this.isSymmetrical() && this.validate(world, pos, Rotation.NONE)) {
             return Rotation.NONE;
         } else {
-            for (Rotation rot : Rotation.values()) {
+            //rotations under which the multiblock maps onto itself are only validated once
+            for (Rotation rot : this.getValidator().getRotations()) {
                 if (this.validate(world, pos, rot)) {
                     return rot;
                 }
@@ -171,15 +165,15 @@ public abstract class AbstractMultiblock implements Multiblock {
     @Override
     public boolean validate(Level world, BlockPos pos, Rotation rotation) {
         this.setLevel(world);
-        Pair<BlockPos, Collection<SimulateResult>> sim = this.simulate(world, pos, rotation, false, false);
-
-        return sim.getSecond().stream().allMatch(r -> {
-            BlockPos checkPos = r.getWorldPosition();
-            TriPredicate<BlockGetter, BlockPos, BlockState> pred = r.getStateMatcher().getStatePredicate();
-            BlockState state = world.getBlockState(checkPos).rotate(fixHorizontal(rotation));
+        return this.getValidator().validate(world, pos, rotation);
+    }
 
-            return pred.test(world, checkPos, state);
-        });
+    public MultiblockValidator getValidator() {
+        var validator = this.validator;
+        if (validator == null) {
+            validator = this.validator = new MultiblockValidator(this);
+        }
+        return validator;
     }
 
     @Override
@@ -220,11 +214,7 @@ public abstract class AbstractMultiblock implements Multiblock {
     @Nullable
     @Override
     public BlockEntity getBlockEntity(BlockPos pos) {
-        BlockState state = this.getBlockState(pos);
-        if (state.getBlock() instanceof EntityBlock eb) {
-            return this.blockEntityCache.computeIfAbsent(pos.immutable(), p -> eb.newBlockEntity(p, state));
-        }
-        return null;
+        return MultiblockBlockEntityCache.get().get(this, pos, this.getBlockState(pos));
     }
 
     @Override
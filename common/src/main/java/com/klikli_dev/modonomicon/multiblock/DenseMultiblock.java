@@ -16,11 +16,14 @@ import com.klikli_dev.modonomicon.api.multiblock.TriPredicate;
 import com.klikli_dev.modonomicon.data.LoaderRegistry;
 import com.klikli_dev.modonomicon.multiblock.matcher.Matchers;
 import com.mojang.datafixers.util.Pair;
+import it.unimi.dsi.fastutil.chars.Char2IntOpenHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Vec3i;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.GsonHelper;
+import net.minecraft.util.Mth;
+import net.minecraft.util.SimpleBitStorage;
 import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Blocks;
@@ -35,16 +38,26 @@ public class DenseMultiblock extends AbstractMultiblock {
 
     private static final Gson GSON = new GsonBuilder().create();
 
-    private final String[][] pattern;
     private final Vec3i size;
     /**
      * Keep only for serialization
      */
     private final Map<Character, StateMatcher> targets;
-    private StateMatcher[][][] stateMatchers;
+    /**
+     * The pattern characters, indexed by palette index.
+     */
+    private final char[] paletteKeys;
+    /**
+     * The state matchers, indexed by palette index.
+     */
+    private final StateMatcher[] palette;
+    /**
+     * The palette index of each position, see {@link #index(int, int, int)}. Packed with as few bits per entry as the
+     * palette size allows.
+     */
+    private final SimpleBitStorage indices;
 
     public DenseMultiblock(String[][] pattern, Map<Character, StateMatcher> targets) {
-        this.pattern = pattern;
         this.targets = targets;
 
         if (!targets.containsKey('_')) {
@@ -57,7 +70,41 @@ public class DenseMultiblock extends AbstractMultiblock {
             targets.put('0', Matchers.AIR);
         }
 
-        this.size = this.build(targets, getPatternDimensions(pattern));
+        this.paletteKeys = paletteKeysFrom(targets);
+        this.palette = paletteFrom(this.paletteKeys, targets);
+        this.size = getPatternDimensions(pattern);
+        this.indices = new SimpleBitStorage(bitsFor(this.palette.length), this.size.getX() * this.size.getY() * this.size.getZ());
+
+        var paletteIndices = new Char2IntOpenHashMap();
+        for (int i = 0; i < this.paletteKeys.length; i++) {
+            paletteIndices.put(this.paletteKeys[i], i);
+        }
+        for (int y = 0; y < this.size.getY(); y++) {
+            for (int x = 0; x < this.size.getX(); x++) {
+                for (int z = 0; z < this.size.getZ(); z++) {
+                    char c = pattern[y][x].charAt(z);
+                    if (!paletteIndices.containsKey(c)) {
+                        throw new IllegalArgumentException("Character " + c + " isn't mapped");
+                    }
+                    this.indices.set(this.index(x, this.size.getY() - y - 1, z), paletteIndices.get(c));
+                }
+            }
+        }
+
+        this.findCenter();
+    }
+
+    private DenseMultiblock(Vec3i size, char[] paletteKeys, StateMatcher[] palette, SimpleBitStorage indices) {
+        this.size = size;
+        this.paletteKeys = paletteKeys;
+        this.palette = palette;
+        this.indices = indices;
+        this.targets = new HashMap<>();
+        for (int i = 0; i < paletteKeys.length; i++) {
+            this.targets.put(paletteKeys[i], palette[i]);
+        }
+
+        this.findCenter();
     }
 
     public static DenseMultiblock fromNetwork(FriendlyByteBuf buffer) {
@@ -69,25 +116,33 @@ public class DenseMultiblock extends AbstractMultiblock {
         var viewOffY = buffer.readVarInt();
         var viewOffZ = buffer.readVarInt();
 
-        var sizeX = buffer.readVarInt();
-        var sizeY = buffer.readVarInt();
-        var pattern = new String[sizeY][sizeX];
-        for (int y = 0; y < sizeY; y++) {
-            for (int x = 0; x < sizeX; x++) {
-                pattern[y][x] = buffer.readUtf();
-            }
-        }
+        var size = new Vec3i(buffer.readVarInt(), buffer.readVarInt(), buffer.readVarInt());
 
-        var targets = new HashMap<Character, StateMatcher>();
-        var targetCount = buffer.readVarInt();
-        for (int i = 0; i < targetCount; i++) {
-            var key = buffer.readChar();
+        var paletteSize = buffer.readVarInt();
+        var paletteKeys = new char[paletteSize];
+        var palette = new StateMatcher[paletteSize];
+        for (int i = 0; i < paletteSize; i++) {
+            paletteKeys[i] = buffer.readChar();
             var type = buffer.readResourceLocation();
-            var stateMatcher = LoaderRegistry.getStateMatcherNetworkLoader(type).fromNetwork(buffer);
-            targets.put(key, stateMatcher);
+            palette[i] = LoaderRegistry.getStateMatcherNetworkLoader(type).fromNetwork(buffer);
         }
 
-        var multiblock = new DenseMultiblock(pattern, targets);
+        //run length encoded palette indices
+        var volume = size.getX() * size.getY() * size.getZ();
+        var indices = new SimpleBitStorage(bitsFor(paletteSize), volume);
+        int index = 0;
+        while (index < volume) {
+            var runLength = buffer.readVarInt();
+            var paletteIndex = buffer.readVarInt();
+            if (runLength <= 0 || index + runLength > volume || paletteIndex >= paletteSize) {
+                throw new IllegalArgumentException("Invalid dense multiblock data received from network.");
+            }
+            for (int end = index + runLength; index < end; index++) {
+                indices.set(index, paletteIndex);
+            }
+        }
+
+        var multiblock = new DenseMultiblock(size, paletteKeys, palette, indices);
         multiblock.setSymmetrical(symmetrical);
         multiblock.setOffset(offX, offY, offZ);
         multiblock.setViewOffset(viewOffX, viewOffY, viewOffZ);
@@ -128,31 +183,62 @@ public class DenseMultiblock extends AbstractMultiblock {
         return new Vec3i(expectedLenX, pattern.length, expectedLenZ);
     }
 
-    private Vec3i build(Map<Character, StateMatcher> stateMap, Vec3i dimensions) {
-        boolean foundCenter = false;
+    private static char[] paletteKeysFrom(Map<Character, StateMatcher> targets) {
+        //sorted, so the same mapping always results in the same palette
+        var keys = new char[targets.size()];
+        int i = 0;
+        for (var key : targets.keySet()) {
+            keys[i++] = key;
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
 
-        this.stateMatchers = new StateMatcher[dimensions.getX()][dimensions.getY()][dimensions.getZ()];
-        for (int y = 0; y < dimensions.getY(); y++) {
-            for (int x = 0; x < dimensions.getX(); x++) {
-                for (int z = 0; z < dimensions.getZ(); z++) {
-                    char c = this.pattern[y][x].charAt(z);
-                    if (!stateMap.containsKey(c)) {
-                        throw new IllegalArgumentException("Character " + c + " isn't mapped");
-                    }
+    private static StateMatcher[] paletteFrom(char[] paletteKeys, Map<Character, StateMatcher> targets) {
+        var palette = new StateMatcher[paletteKeys.length];
+        for (int i = 0; i < paletteKeys.length; i++) {
+            palette[i] = targets.get(paletteKeys[i]);
+        }
+        return palette;
+    }
+
+    private static int bitsFor(int paletteSize) {
+        return Math.max(1, Mth.ceillog2(paletteSize));
+    }
+
+    /**
+     * Layers are stored one after the other, so air-only layers form a single run in the network format.
+     */
+    private int index(int x, int y, int z) {
+        return (y * this.size.getX() + x) * this.size.getZ() + z;
+    }
+
+    private StateMatcher getStateMatcher(int x, int y, int z) {
+        return this.palette[this.indices.get(this.index(x, y, z))];
+    }
 
-                    StateMatcher matcher = stateMap.get(c);
-                    if (c == '0') {
+    private void findCenter() {
+        int center = -1;
+        for (int i = 0; i < this.paletteKeys.length; i++) {
+            if (this.paletteKeys[i] == '0') {
+                center = i;
+            }
+        }
+
+        boolean foundCenter = false;
+        for (int y = 0; y < this.size.getY(); y++) {
+            for (int x = 0; x < this.size.getX(); x++) {
+                for (int z = 0; z < this.size.getZ(); z++) {
+                    if (this.indices.get(this.index(x, y, z)) == center) {
                         if (foundCenter) {
                             throw new IllegalArgumentException("A structure can't have two centers");
                         }
                         foundCenter = true;
                         this.offX = x;
-                        this.offY = dimensions.getY() - y - 1;
+                        this.offY = y;
                         this.offZ = z;
                         this.setViewOffset();
                     }
-
-                    this.stateMatchers[x][dimensions.getY() - y - 1][z] = matcher;
                 }
             }
         }
@@ -160,7 +246,6 @@ public class DenseMultiblock extends AbstractMultiblock {
         if (!foundCenter) {
             throw new IllegalArgumentException("A structure can't have no center");
         }
-        return dimensions;
     }
 
     @Override
@@ -184,8 +269,8 @@ public class DenseMultiblock extends AbstractMultiblock {
                 for (int z = 0; z < this.size.getZ(); z++) {
                     BlockPos currDisp = new BlockPos(x, y, z).rotate(rotation);
                     BlockPos actionPos = origin.offset(currDisp);
-                    char currC = this.pattern[y][x].charAt(z);
-                    ret.add(new SimulateResultImpl(actionPos, this.stateMatchers[x][y][z], currC));
+                    int paletteIndex = this.indices.get(this.index(x, y, z));
+                    ret.add(new SimulateResultImpl(actionPos, this.palette[paletteIndex], this.paletteKeys[paletteIndex]));
                 }
             }
         }
@@ -199,7 +284,7 @@ public class DenseMultiblock extends AbstractMultiblock {
             return false;
         }
         BlockPos checkPos = start.offset(new BlockPos(x, y, z).rotate(AbstractMultiblock.fixHorizontal(rotation)));
-        TriPredicate<BlockGetter, BlockPos, BlockState> pred = this.stateMatchers[x][y][z].getStatePredicate();
+        TriPredicate<BlockGetter, BlockPos, BlockState> pred = this.getStateMatcher(x, y, z).getStatePredicate();
         BlockState state = level.getBlockState(checkPos).rotate(rotation);
 
         return pred.test(level, checkPos, state);
@@ -217,17 +302,27 @@ public class DenseMultiblock extends AbstractMultiblock {
 
         buffer.writeVarInt(this.size.getX());
         buffer.writeVarInt(this.size.getY());
-        for (int y = 0; y < this.size.getY(); y++) {
-            for (int x = 0; x < this.size.getX(); x++) {
-                buffer.writeUtf(this.pattern[y][x]);
-            }
+        buffer.writeVarInt(this.size.getZ());
+
+        buffer.writeVarInt(this.palette.length);
+        for (int i = 0; i < this.palette.length; i++) {
+            buffer.writeChar(this.paletteKeys[i]);
+            buffer.writeResourceLocation(this.palette[i].getType());
+            this.palette[i].toNetwork(buffer);
         }
 
-        buffer.writeVarInt(this.targets.size());
-        for (var entry : this.targets.entrySet()) {
-            buffer.writeChar(entry.getKey());
-            buffer.writeResourceLocation(entry.getValue().getType());
-            entry.getValue().toNetwork(buffer);
+        //run length encoded palette indices, as pairs of run length and palette index
+        int volume = this.indices.getSize();
+        int index = 0;
+        while (index < volume) {
+            int paletteIndex = this.indices.get(index);
+            int end = index + 1;
+            while (end < volume && this.indices.get(end) == paletteIndex) {
+                end++;
+            }
+            buffer.writeVarInt(end - index);
+            buffer.writeVarInt(paletteIndex);
+            index = end;
         }
     }
 
@@ -245,6 +340,6 @@ public class DenseMultiblock extends AbstractMultiblock {
             return Blocks.AIR.defaultBlockState();
         }
         long ticks = level != null ? level.getGameTime() : 0L;
-        return stateMatchers[x][y][z].getDisplayedState(ticks);
+        return this.getStateMatcher(x, y, z).getDisplayedState(ticks);
     }
 }
@@ -0,0 +1,111 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.multiblock;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.EntityBlock;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared cache for the block entities created to render multiblocks (book pages, in-world preview, and
+ * {@link AbstractMultiblock#getBlockEntity(BlockPos)}). Bounded in size and time, so multiblocks that stay displayed for
+ * a long time do not keep all their block entities alive forever.
+ * <p>
+ * Block entities belong to an owner, e.g. the page renderer or the preview showing a multiblock, so each view can
+ * release its own without affecting other views of the same multiblock. Owners are compared by identity.
+ * The cache is emptied when the client level changes, as the block entities are given the client level to render.
+ */
+public class MultiblockBlockEntityCache {
+
+    private static final int MAX_SIZE = 2048;
+    private static final int EXPIRE_AFTER_ACCESS_SECONDS = 60;
+
+    private static final MultiblockBlockEntityCache instance = new MultiblockBlockEntityCache();
+
+    private final Cache<Key, BlockEntity> cache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    private Level level;
+
+    private MultiblockBlockEntityCache() {
+    }
+
+    public static MultiblockBlockEntityCache get() {
+        return instance;
+    }
+
+    /**
+     * Gets or creates the block entity for the given state at the given position, for the given owner.
+     *
+     * @param owner the view the block entity is displayed in, see {@link #release(Object)}.
+     * @return the block entity, or null if the state has no block entity.
+     */
+    @Nullable
+    public BlockEntity get(Object owner, BlockPos pos, BlockState state) {
+        if (!(state.getBlock() instanceof EntityBlock entityBlock)) {
+            return null;
+        }
+
+        var key = new Key(owner, pos.immutable(), state);
+        var blockEntity = this.cache.getIfPresent(key);
+        if (blockEntity == null) {
+            //not using Cache#get with a loader, as newBlockEntity may return null, which the cache does not accept
+            blockEntity = entityBlock.newBlockEntity(key.pos(), state);
+            if (blockEntity != null) {
+                this.cache.put(key, blockEntity);
+            }
+        }
+        return blockEntity;
+    }
+
+    /**
+     * Releases all block entities of the given owner, e.g. because the page showing them was closed or the preview
+     * was cleared.
+     */
+    public void release(Object owner) {
+        this.cache.asMap().keySet().removeIf(key -> key.owner() == owner);
+    }
+
+    /**
+     * Call every client tick with the current client level, so block entities do not keep a previous level alive.
+     */
+    public void onClientTick(@Nullable Level level) {
+        if (this.level != level) {
+            this.clear();
+            this.level = level;
+        }
+    }
+
+    /**
+     * Releases all block entities, e.g. because the level changed.
+     */
+    public void clear() {
+        this.cache.invalidateAll();
+    }
+
+    private record Key(Object owner, BlockPos pos, BlockState state) {
+        @Override
+        public boolean equals(Object o) {
+            //owners by identity, multiblocks e.g. are equal by id
+            return this == o || o instanceof Key that && this.owner == that.owner && this.pos.equals(that.pos) && this.state == that.state;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * System.identityHashCode(this.owner) + this.pos.hashCode()) + this.state.hashCode();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.multiblock;
+
+import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * Places multiblocks in bulk.
+ * <p>
+ * All states are written first, section by section, without neighbour or shape updates. Only then one update pass
+ * runs over the placed blocks, so blocks inside the structure do not repeatedly update each other while it is only
+ * half built. Client updates are sent with {@link Block#UPDATE_CLIENTS}, which the server batches into one packet per
+ * changed chunk section at the end of the tick; light checks are queued by the chunk and processed in one batch by
+ * the light engine as well.
+ */
+public class MultiblockPlacer {
+
+    /**
+     * Send to clients, but skip neighbour block updates and neighbour shape updates, they are done in the update pass.
+     */
+    private static final int PLACE_FLAGS = Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE;
+
+    /**
+     * Flags for the shape updates of the update pass, same as vanilla uses for the shape updates caused by a block change.
+     */
+    private static final int SHAPE_UPDATE_FLAGS = Block.UPDATE_ALL & ~(Block.UPDATE_NEIGHBORS | Block.UPDATE_SUPPRESS_DROPS);
+
+    /**
+     * Places all non-air displayed states of the multiblock, where the world has a replaceable block and the state can
+     * survive.
+     */
+    public static void place(Level level, Multiblock multiblock, BlockPos anchor, Rotation rotation) {
+        long ticks = level.getGameTime();
+        var placements = new ArrayList<Placement>();
+        for (var result : multiblock.simulate(level, anchor, rotation, false, false).getSecond()) {
+            var state = result.getStateMatcher().getDisplayedState(ticks).rotate(rotation);
+            if (!state.isAir()) {
+                placements.add(new Placement(result.getWorldPosition(), state));
+            }
+        }
+
+        //bottom up, so blocks are usually placed after the blocks they stand on, section by section within a layer
+        placements.sort(Comparator
+                .comparingInt((Placement p) -> SectionPos.blockToSectionCoord(p.pos().getY()))
+                .thenComparingInt(p -> SectionPos.blockToSectionCoord(p.pos().getX()))
+                .thenComparingInt(p -> SectionPos.blockToSectionCoord(p.pos().getZ()))
+                .thenComparingInt(p -> p.pos().getY()));
+
+        var placed = new ArrayList<BlockPos>(placements.size());
+        for (var placement : placements) {
+            var pos = placement.pos();
+            var state = placement.state();
+            if (state.canSurvive(level, pos) && level.getBlockState(pos).canBeReplaced() && level.setBlock(pos, state, PLACE_FLAGS)) {
+                placed.add(pos);
+            }
+        }
+
+        //one update pass over the finished structure
+        for (var pos : placed) {
+            var state = level.getBlockState(pos);
+            state.updateNeighbourShapes(level, pos, SHAPE_UPDATE_FLAGS);
+            state.updateIndirectNeighbourShapes(level, pos, SHAPE_UPDATE_FLAGS);
+        }
+        for (var pos : placed) {
+            var state = level.getBlockState(pos);
+            level.blockUpdated(pos, state.getBlock());
+            if (state.hasAnalogOutputSignal()) {
+                level.updateNeighbourForOutputSignal(pos, state.getBlock());
+            }
+        }
+    }
+
+    private record Placement(BlockPos pos, BlockState state) {
+    }
+}
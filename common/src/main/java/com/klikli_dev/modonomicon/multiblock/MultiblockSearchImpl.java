@@ -0,0 +1,241 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.multiblock;
+
+import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
+import com.klikli_dev.modonomicon.api.multiblock.MultiblockSearch;
+import com.klikli_dev.modonomicon.api.multiblock.TriPredicate;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Searches for multiblocks using the most selective position of their {@link MultiblockValidator} as key block.
+ * <p>
+ * The search runs in three steps: on the calling thread, the palettes of all loaded chunk sections in range are checked
+ * for states that could be the key block, and matching sections are copied. The copies are then scanned in parallel
+ * for key blocks, each of which gives a candidate anchor per rotation. Finally, the candidates are validated on the
+ * calling thread, against the live level.
+ * <p>
+ * Key blocks are tested by their state only, with an empty block getter, as the scan does not run on the level thread.
+ * That is only done if the key block's matcher is known to look at nothing but the state, see
+ * {@link com.klikli_dev.modonomicon.api.multiblock.StateMatcher#isStateOnly()}. Otherwise, all anchors in the area are
+ * validated on the calling thread, against the live level.
+ */
+public class MultiblockSearchImpl implements MultiblockSearch {
+
+    private static final MultiblockSearchImpl instance = new MultiblockSearchImpl();
+
+    private MultiblockSearchImpl() {
+    }
+
+    public static MultiblockSearchImpl get() {
+        return instance;
+    }
+
+    private static boolean isKey(TriPredicate<BlockGetter, BlockPos, BlockState> key, BlockState state, Rotation rotation) {
+        //validation tests the world state rotated back into the multiblock's orientation, see AbstractMultiblock#fixHorizontal
+        return key.test(EmptyBlockGetter.INSTANCE, BlockPos.ZERO, state.rotate(AbstractMultiblock.fixHorizontal(rotation)));
+    }
+
+    @Override
+    public List<Match> find(Level level, Multiblock multiblock, BoundingBox area) {
+        if (!(multiblock instanceof AbstractMultiblock abstractMultiblock) || abstractMultiblock.getValidator().size() == 0) {
+            return this.findExhaustive(level, multiblock, area);
+        }
+
+        var validator = abstractMultiblock.getValidator();
+        if (!validator.isStateOnly(0)) {
+            //the key predicate may look at the world or position, so it cannot be tested off thread without them
+            return this.findSerial(level, abstractMultiblock, area);
+        }
+
+        var key = validator.getPredicate(0);
+        var rotations = validator.getRotations();
+
+        var keyOffsets = new BlockPos[rotations.length];
+        BoundingBox keyArea = null;
+        for (int r = 0; r < rotations.length; r++) {
+            keyOffsets[r] = validator.getOffset(0, rotations[r]);
+            var rotatedArea = area.moved(keyOffsets[r].getX(), keyOffsets[r].getY(), keyOffsets[r].getZ());
+            keyArea = keyArea == null ? rotatedArea : BoundingBox.encapsulatingBoxes(List.of(keyArea, rotatedArea)).orElseThrow();
+        }
+
+        var snapshots = this.snapshotSections(level, keyArea, state -> {
+            for (var rotation : rotations) {
+                if (isKey(key, state, rotation)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+
+        var candidates = snapshots.parallelStream()
+                .flatMap(snapshot -> this.scan(snapshot, key, rotations, keyOffsets, area))
+                .sorted(Comparator.comparingLong(Candidate::anchor).thenComparingInt(c -> c.rotation().ordinal()))
+                .toList();
+
+        var matches = new ArrayList<Match>();
+        var matchedAnchors = new LongOpenHashSet();
+        for (var candidate : candidates) {
+            //like Multiblock#validate(Level, BlockPos), each anchor matches with the first rotation that works
+            if (matchedAnchors.contains(candidate.anchor())) {
+                continue;
+            }
+            var anchor = BlockPos.of(candidate.anchor());
+            abstractMultiblock.setLevel(level);
+            if (validator.check(level, anchor, candidate.rotation()) == MultiblockValidator.Result.VALID) {
+                matchedAnchors.add(candidate.anchor());
+                matches.add(new Match(anchor, candidate.rotation()));
+            }
+        }
+        return matches;
+    }
+
+    private List<SectionSnapshot> snapshotSections(Level level, BoundingBox keyArea, Predicate<BlockState> mayBeKey) {
+        var snapshots = new ArrayList<SectionSnapshot>();
+        int minSectionY = Math.max(level.getMinSection(), SectionPos.blockToSectionCoord(keyArea.minY()));
+        int maxSectionY = Math.min(level.getMaxSection() - 1, SectionPos.blockToSectionCoord(keyArea.maxY()));
+
+        for (int chunkX = SectionPos.blockToSectionCoord(keyArea.minX()); chunkX <= SectionPos.blockToSectionCoord(keyArea.maxX()); chunkX++) {
+            for (int chunkZ = SectionPos.blockToSectionCoord(keyArea.minZ()); chunkZ <= SectionPos.blockToSectionCoord(keyArea.maxZ()); chunkZ++) {
+                //never load chunks for a search
+                var chunk = level.getChunkSource().getChunk(chunkX, chunkZ, false);
+                if (chunk == null) {
+                    continue;
+                }
+
+                var sections = chunk.getSections();
+                for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+                    var states = sections[level.getSectionIndexFromSectionY(sectionY)].getStates();
+                    //the palette check only looks at the (usually few) distinct states in the section
+                    if (states.maybeHas(mayBeKey)) {
+                        snapshots.add(new SectionSnapshot(
+                                SectionPos.sectionToBlockCoord(chunkX),
+                                SectionPos.sectionToBlockCoord(sectionY),
+                                SectionPos.sectionToBlockCoord(chunkZ),
+                                states.copy()));
+                    }
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    private Stream<Candidate> scan(SectionSnapshot snapshot, TriPredicate<BlockGetter, BlockPos, BlockState> key, Rotation[] rotations, BlockPos[] keyOffsets, BoundingBox area) {
+        var candidates = new ArrayList<Candidate>();
+        //bit r is set if the state is a key block in rotations[r], sections usually contain only a few distinct states
+        var keyMasks = new Reference2IntOpenHashMap<BlockState>();
+        keyMasks.defaultReturnValue(-1);
+
+        for (int y = 0; y < SectionPos.SECTION_SIZE; y++) {
+            for (int z = 0; z < SectionPos.SECTION_SIZE; z++) {
+                for (int x = 0; x < SectionPos.SECTION_SIZE; x++) {
+                    var state = snapshot.states().get(x, y, z);
+                    int mask = keyMasks.getInt(state);
+                    if (mask == -1) {
+                        mask = 0;
+                        for (int r = 0; r < rotations.length; r++) {
+                            if (isKey(key, state, rotations[r])) {
+                                mask |= 1 << r;
+                            }
+                        }
+                        keyMasks.put(state, mask);
+                    }
+                    if (mask == 0) {
+                        continue;
+                    }
+
+                    for (int r = 0; r < rotations.length; r++) {
+                        if ((mask & (1 << r)) == 0) {
+                            continue;
+                        }
+                        int anchorX = snapshot.originX() + x - keyOffsets[r].getX();
+                        int anchorY = snapshot.originY() + y - keyOffsets[r].getY();
+                        int anchorZ = snapshot.originZ() + z - keyOffsets[r].getZ();
+                        if (area.isInside(anchorX, anchorY, anchorZ)) {
+                            candidates.add(new Candidate(BlockPos.asLong(anchorX, anchorY, anchorZ), rotations[r]));
+                        }
+                    }
+                }
+            }
+        }
+        return candidates.stream();
+    }
+
+    /**
+     * Validates every anchor in the area, without loading chunks. The validator checks the key block first, so most
+     * anchors are rejected after reading one block.
+     */
+    private List<Match> findSerial(Level level, AbstractMultiblock multiblock, BoundingBox area) {
+        multiblock.setLevel(level);
+        var validator = multiblock.getValidator();
+        var matches = new ArrayList<Match>();
+        for (var pos : BlockPos.betweenClosed(area.minX(), area.minY(), area.minZ(), area.maxX(), area.maxY(), area.maxZ())) {
+            for (var rotation : validator.getRotations()) {
+                if (validator.check(level, pos, rotation) == MultiblockValidator.Result.VALID) {
+                    matches.add(new Match(pos.immutable(), rotation));
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * For multiblocks we know nothing about, validate every anchor in the area. Only anchors where all positions the
+     * multiblock covers, in any rotation, are in loaded chunks are validated, as validation loads chunks.
+     */
+    private List<Match> findExhaustive(Level level, Multiblock multiblock, BoundingBox area) {
+        var bounds = getBounds(level, multiblock);
+        var matches = new ArrayList<Match>();
+        for (var pos : BlockPos.betweenClosed(area.minX(), area.minY(), area.minZ(), area.maxX(), area.maxY(), area.maxZ())) {
+            if (!level.hasChunksAt(pos.getX() + bounds.minX(), pos.getZ() + bounds.minZ(), pos.getX() + bounds.maxX(), pos.getZ() + bounds.maxZ())) {
+                continue;
+            }
+            var rotation = multiblock.validate(level, pos);
+            if (rotation != null) {
+                matches.add(new Match(pos.immutable(), rotation));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return the box around all positions the multiblock covers in any rotation, relative to the anchor, or just the
+     * anchor if it covers none.
+     */
+    private static BoundingBox getBounds(Level level, Multiblock multiblock) {
+        var positions = new ArrayList<BlockPos>();
+        for (var rotation : Rotation.values()) {
+            for (var result : multiblock.simulate(level, BlockPos.ZERO, rotation, false, false).getSecond()) {
+                positions.add(result.getWorldPosition());
+            }
+        }
+        return BoundingBox.encapsulatingPositions(positions).orElseGet(() -> new BoundingBox(BlockPos.ZERO));
+    }
+
+    private record SectionSnapshot(int originX, int originY, int originZ, PalettedContainer<BlockState> states) {
+    }
+
+    private record Candidate(long anchor, Rotation rotation) {
+    }
+}
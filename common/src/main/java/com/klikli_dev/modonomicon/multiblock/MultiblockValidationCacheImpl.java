@@ -0,0 +1,235 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.multiblock;
+
+import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
+import com.klikli_dev.modonomicon.api.multiblock.MultiblockValidationCache;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Caches validation results per level, multiblock and anchor. Each entry registers itself with all chunk sections
+ * its multiblock covers (in any rotation), a block change in one of those sections drops the entry.
+ * <p>
+ * Only used on the server thread, block changes are reported by MixinLevelChunk, chunk unloads by MixinServerLevel.
+ * Only multiblocks whose matchers look at nothing but the block state are cached.
+ */
+public class MultiblockValidationCacheImpl implements MultiblockValidationCache {
+
+    /**
+     * Upper bound for entries per level, if exceeded the level cache starts over.
+     */
+    private static final int MAX_ENTRIES_PER_LEVEL = 8192;
+
+    private static final byte UNKNOWN = 0;
+    private static final byte VALID = 1;
+    private static final byte INVALID = 2;
+
+    private static final MultiblockValidationCacheImpl instance = new MultiblockValidationCacheImpl();
+
+    private final Map<Level, LevelCache> levels = new WeakHashMap<>();
+
+    private MultiblockValidationCacheImpl() {
+    }
+
+    public static MultiblockValidationCacheImpl get() {
+        return instance;
+    }
+
+    private static Rotation[] getRotations(Multiblock multiblock) {
+        return multiblock instanceof AbstractMultiblock abstractMultiblock ? abstractMultiblock.getValidator().getRotations() : Rotation.values();
+    }
+
+    private static boolean isCacheable(Level level) {
+        return !level.isClientSide && level.getServer() != null && level.getServer().isSameThread();
+    }
+
+    @Nullable
+    @Override
+    public Rotation validate(Level level, Multiblock multiblock, BlockPos pos) {
+        if (multiblock.isSymmetrical() && this.validate(level, multiblock, pos, Rotation.NONE)) {
+            return Rotation.NONE;
+        }
+        for (var rotation : getRotations(multiblock)) {
+            if (this.validate(level, multiblock, pos, rotation)) {
+                return rotation;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean validate(Level level, Multiblock multiblock, BlockPos pos, Rotation rotation) {
+        //only block state changes are reported, so results of other multiblocks could become stale unnoticed
+        if (!isCacheable(level) || !(multiblock instanceof AbstractMultiblock abstractMultiblock) || !abstractMultiblock.getValidator().isStateOnly()) {
+            return multiblock.validate(level, pos, rotation);
+        }
+
+        var entry = this.levels.computeIfAbsent(level, l -> new LevelCache()).getOrCreate(abstractMultiblock, pos);
+        var result = entry.results[rotation.ordinal()];
+        if (result == UNKNOWN) {
+            abstractMultiblock.setLevel(level);
+            //loads chunks like Multiblock#validate, changes and unloads of those chunks are reported like any others
+            result = abstractMultiblock.getValidator().validate(level, pos, rotation) ? VALID : INVALID;
+            entry.results[rotation.ordinal()] = result;
+        }
+        return result == VALID;
+    }
+
+    @Override
+    public void invalidate(Multiblock multiblock) {
+        for (var cache : this.levels.values()) {
+            cache.invalidate(multiblock);
+        }
+    }
+
+    /**
+     * Called whenever a block changes in a loaded chunk on the server, on any thread.
+     */
+    public void onBlockChanged(Level level, BlockPos pos) {
+        //results are only cached on the server thread, and the maps must not be touched on others: even reading the
+        //weak map expunges stale levels
+        if (!isCacheable(level) || this.levels.isEmpty()) {
+            return;
+        }
+        var cache = this.levels.get(level);
+        if (cache != null) {
+            cache.invalidateSection(SectionPos.asLong(pos));
+        }
+    }
+
+    /**
+     * Called when a chunk is unloaded on the server, as it may be changed outside our knowledge before it is loaded again.
+     */
+    public void onChunkUnloaded(Level level, ChunkPos chunkPos) {
+        if (this.levels.isEmpty()) {
+            return;
+        }
+        var cache = this.levels.get(level);
+        if (cache != null) {
+            for (int y = level.getMinSection(); y < level.getMaxSection(); y++) {
+                cache.invalidateSection(SectionPos.asLong(chunkPos.x, y, chunkPos.z));
+            }
+        }
+    }
+
+    /**
+     * Forgets all results, e.g. because multiblocks were reloaded.
+     */
+    public void clear() {
+        this.levels.clear();
+    }
+
+    private static class LevelCache {
+        private final Reference2ObjectMap<Multiblock, Long2ObjectMap<Entry>> entries = new Reference2ObjectOpenHashMap<>();
+        private final Long2ObjectMap<List<Entry>> sections = new Long2ObjectOpenHashMap<>();
+        private int size;
+
+        public Entry getOrCreate(AbstractMultiblock multiblock, BlockPos anchor) {
+            var anchors = this.entries.computeIfAbsent(multiblock, m -> new Long2ObjectOpenHashMap<>());
+            var entry = anchors.get(anchor.asLong());
+            if (entry == null) {
+                if (this.size >= MAX_ENTRIES_PER_LEVEL) {
+                    this.entries.clear();
+                    this.sections.clear();
+                    this.size = 0;
+                    anchors = this.entries.computeIfAbsent(multiblock, m -> new Long2ObjectOpenHashMap<>());
+                }
+
+                entry = new Entry(multiblock, anchor.asLong(), multiblock.getValidator().getBounds(anchor));
+                anchors.put(entry.anchor, entry);
+                for (long section : entry.sections) {
+                    this.sections.computeIfAbsent(section, s -> new ReferenceArrayList<>()).add(entry);
+                }
+                this.size++;
+            }
+            return entry;
+        }
+
+        public void invalidateSection(long section) {
+            var entries = this.sections.remove(section);
+            if (entries != null) {
+                for (var entry : entries) {
+                    this.remove(entry, section);
+                }
+            }
+        }
+
+        public void invalidate(Multiblock multiblock) {
+            var anchors = this.entries.get(multiblock);
+            if (anchors != null) {
+                for (var entry : List.copyOf(anchors.values())) {
+                    this.remove(entry, Long.MIN_VALUE);
+                }
+            }
+        }
+
+        private void remove(Entry entry, long skipSection) {
+            var anchors = this.entries.get(entry.multiblock);
+            if (anchors == null || anchors.remove(entry.anchor) == null) {
+                return; //already removed through another section
+            }
+            if (anchors.isEmpty()) {
+                this.entries.remove(entry.multiblock);
+            }
+            this.size--;
+
+            for (long section : entry.sections) {
+                if (section == skipSection) {
+                    continue;
+                }
+                var entries = this.sections.get(section);
+                if (entries != null) {
+                    entries.remove(entry);
+                    if (entries.isEmpty()) {
+                        this.sections.remove(section);
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Multiblock multiblock;
+        private final long anchor;
+        private final long[] sections;
+        /**
+         * Indexed by {@link Rotation#ordinal()}.
+         */
+        private final byte[] results = new byte[4];
+
+        public Entry(Multiblock multiblock, long anchor, BoundingBox bounds) {
+            this.multiblock = multiblock;
+            this.anchor = anchor;
+
+            var sections = new LongArrayList();
+            for (int x = SectionPos.blockToSectionCoord(bounds.minX()); x <= SectionPos.blockToSectionCoord(bounds.maxX()); x++) {
+                for (int y = SectionPos.blockToSectionCoord(bounds.minY()); y <= SectionPos.blockToSectionCoord(bounds.maxY()); y++) {
+                    for (int z = SectionPos.blockToSectionCoord(bounds.minZ()); z <= SectionPos.blockToSectionCoord(bounds.maxZ()); z++) {
+                        sections.add(SectionPos.asLong(x, y, z));
+                    }
+                }
+            }
+            this.sections = sections.toLongArray();
+        }
+    }
+}
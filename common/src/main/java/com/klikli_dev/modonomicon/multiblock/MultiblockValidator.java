@@ -0,0 +1,347 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.multiblock;
+
+import com.klikli_dev.modonomicon.api.multiblock.Multiblock;
+import com.klikli_dev.modonomicon.api.multiblock.StateMatcher;
+import com.klikli_dev.modonomicon.api.multiblock.TriPredicate;
+import com.klikli_dev.modonomicon.multiblock.matcher.*;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Validates a multiblock against the world without allocating.
+ * <p>
+ * The offsets of all positions that need to be checked are rotated ahead of time, once per rotation, and stored
+ * together with their predicates in flat arrays. Positions are ordered so matchers that are least likely to match a
+ * random block are checked first, and validation stops at the first mismatch.
+ * <p>
+ * The layout is also analysed for rotational symmetry. Rotations that map the multiblock onto itself give the same
+ * validation result, so only one rotation of each equivalence class needs to be validated, see {@link #getRotations()}.
+ */
+public class MultiblockValidator {
+
+    private static final Rotation[] ROTATIONS = Rotation.values();
+
+    /**
+     * The cursor passed to the predicates of state only matchers, which do not look at the position at all. Others may
+     * hold on to the position they are given, they get an immutable copy, see {@link #statePredicates}.
+     */
+    private static final ThreadLocal<BlockPos.MutableBlockPos> CURSOR = ThreadLocal.withInitial(BlockPos.MutableBlockPos::new);
+    /**
+     * The chunk sections resolved during the current validation, by {@link SectionPos#asLong()}. Emptied after each
+     * validation, so it does not keep sections of unloaded levels alive.
+     */
+    private static final ThreadLocal<Long2ObjectMap<LevelChunkSection>> SECTIONS = ThreadLocal.withInitial(Long2ObjectOpenHashMap::new);
+
+    private final TriPredicate<BlockGetter, BlockPos, BlockState>[] predicates;
+    /**
+     * True for predicates of state only matchers, see {@link StateMatcher#isStateOnly()}, which can be given the mutable
+     * cursor.
+     */
+    private final boolean[] statePredicates;
+    /**
+     * Offsets from the anchor, indexed by {@link Rotation#ordinal()}, then by position.
+     */
+    private final int[][] offsetsX;
+    private final int[][] offsetsY;
+    private final int[][] offsetsZ;
+    /**
+     * One representative rotation of each equivalence class.
+     */
+    private final Rotation[] rotations;
+    /**
+     * The box around all relevant positions in all rotations, relative to the anchor.
+     */
+    private final BoundingBox bounds;
+    /**
+     * True if all predicates only look at the state they are passed, see {@link StateMatcher#isStateOnly()}.
+     */
+    private final boolean stateOnly;
+
+    @SuppressWarnings("unchecked")
+    public MultiblockValidator(Multiblock multiblock) {
+        //simulating around the zero anchor gives the offsets of all positions from the anchor, for the unrotated multiblock
+        var results = new ArrayList<Multiblock.SimulateResult>();
+        for (var result : multiblock.simulate(null, BlockPos.ZERO, Rotation.NONE, false, false).getSecond()) {
+            //these always match, no need to look at the world for them
+            if (result.getStateMatcher() != Matchers.ANY && result.getStateMatcher().getType() != DisplayOnlyMatcher.TYPE) {
+                results.add(result);
+            }
+        }
+        this.sortBySelectivity(results);
+        this.stateOnly = results.stream().allMatch(r -> r.getStateMatcher().isStateOnly());
+
+        int size = results.size();
+        this.predicates = new TriPredicate[size];
+        this.statePredicates = new boolean[size];
+        this.offsetsX = new int[ROTATIONS.length][size];
+        this.offsetsY = new int[ROTATIONS.length][size];
+        this.offsetsZ = new int[ROTATIONS.length][size];
+
+        for (int i = 0; i < size; i++) {
+            var result = results.get(i);
+            this.predicates[i] = result.getStateMatcher().getStatePredicate();
+            this.statePredicates[i] = result.getStateMatcher().isStateOnly();
+
+            for (var rotation : ROTATIONS) {
+                var offset = result.getWorldPosition().rotate(rotation);
+                this.offsetsX[rotation.ordinal()][i] = offset.getX();
+                this.offsetsY[rotation.ordinal()][i] = offset.getY();
+                this.offsetsZ[rotation.ordinal()][i] = offset.getZ();
+            }
+        }
+
+        this.rotations = this.findRotations(results);
+        this.bounds = this.findBounds();
+    }
+
+    private BoundingBox findBounds() {
+        int minX = 0, minY = 0, minZ = 0, maxX = 0, maxY = 0, maxZ = 0;
+        for (var rotation : ROTATIONS) {
+            int r = rotation.ordinal();
+            for (int i = 0; i < this.predicates.length; i++) {
+                minX = Math.min(minX, this.offsetsX[r][i]);
+                minY = Math.min(minY, this.offsetsY[r][i]);
+                minZ = Math.min(minZ, this.offsetsZ[r][i]);
+                maxX = Math.max(maxX, this.offsetsX[r][i]);
+                maxY = Math.max(maxY, this.offsetsY[r][i]);
+                maxZ = Math.max(maxZ, this.offsetsZ[r][i]);
+            }
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Lower ranks are checked first: exact states before blocks, blocks before tags and custom predicates, air last.
+     */
+    private static int rank(StateMatcher matcher) {
+        if (matcher == Matchers.AIR) {
+            return 4;
+        }
+        var type = matcher.getType();
+        if (type.equals(BlockStateMatcher.TYPE)) {
+            return 0;
+        }
+        if (type.equals(BlockMatcher.TYPE) || type.equals(BlockStatePropertyMatcher.TYPE)) {
+            return 1;
+        }
+        if (type.equals(TagMatcher.TYPE)) {
+            return 2;
+        }
+        return 3;
+    }
+
+    private void sortBySelectivity(List<Multiblock.SimulateResult> results) {
+        //within a rank, matchers used in few positions (e.g. the core block of a structure) are checked first
+        var counts = new Object2IntOpenHashMap<StateMatcher>();
+        for (var result : results) {
+            counts.addTo(result.getStateMatcher(), 1);
+        }
+        //positions with the same matcher are ordered spatially, so consecutive reads mostly hit the same chunk section
+        results.sort(Comparator
+                .comparingInt((Multiblock.SimulateResult r) -> rank(r.getStateMatcher()))
+                .thenComparingInt(r -> counts.getInt(r.getStateMatcher()))
+                .thenComparingInt(r -> SectionPos.blockToSectionCoord(r.getWorldPosition().getY()))
+                .thenComparingInt(r -> SectionPos.blockToSectionCoord(r.getWorldPosition().getZ()))
+                .thenComparingInt(r -> SectionPos.blockToSectionCoord(r.getWorldPosition().getX())));
+    }
+
+    /**
+     * Finds the rotations that need to be validated. If the multiblock maps onto itself under 90 degree rotation all
+     * rotations are equivalent, if it maps onto itself under 180 degree rotation NONE/180 and 90/270 are equivalent.
+     */
+    private Rotation[] findRotations(List<Multiblock.SimulateResult> results) {
+        var layout = new Long2ObjectOpenHashMap<StateMatcher>(results.size());
+        for (var result : results) {
+            //if the matcher result depends on the rotation of the state, rotating the layout changes what is validated
+            if (!result.getStateMatcher().isRotationInvariant()) {
+                return ROTATIONS;
+            }
+            layout.put(result.getWorldPosition().asLong(), result.getStateMatcher());
+        }
+
+        if (this.mapsOntoItself(layout, Rotation.CLOCKWISE_90)) {
+            return new Rotation[]{Rotation.NONE};
+        }
+        if (this.mapsOntoItself(layout, Rotation.CLOCKWISE_180)) {
+            return new Rotation[]{Rotation.NONE, Rotation.CLOCKWISE_90};
+        }
+        return ROTATIONS;
+    }
+
+    private boolean mapsOntoItself(Long2ObjectMap<StateMatcher> layout, Rotation rotation) {
+        int r = rotation.ordinal();
+        for (int i = 0; i < this.predicates.length; i++) {
+            long rotated = BlockPos.asLong(this.offsetsX[r][i], this.offsetsY[r][i], this.offsetsZ[r][i]);
+            long original = BlockPos.asLong(this.offsetsX[0][i], this.offsetsY[0][i], this.offsetsZ[0][i]);
+            //identity, matcher instances are shared between all positions of the same mapping key
+            if (layout.get(rotated) != layout.get(original)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The rotations to try when validating a multiblock in any rotation, one per equivalence class, starting with
+     * {@link Rotation#NONE}.
+     */
+    public Rotation[] getRotations() {
+        return this.rotations;
+    }
+
+    /**
+     * @return true if the validation result only depends on the block states, see {@link StateMatcher#isStateOnly()}.
+     */
+    public boolean isStateOnly() {
+        return this.stateOnly;
+    }
+
+    /**
+     * The number of positions checked during validation.
+     */
+    public int size() {
+        return this.predicates.length;
+    }
+
+    /**
+     * The predicate of the position with the given index. Positions are ordered by selectivity, so index 0 is the
+     * position least likely to match a random block.
+     */
+    public TriPredicate<BlockGetter, BlockPos, BlockState> getPredicate(int index) {
+        return this.predicates[index];
+    }
+
+    /**
+     * @return true if the predicate of the position with the given index only looks at the state it is passed, see
+     * {@link StateMatcher#isStateOnly()}.
+     */
+    public boolean isStateOnly(int index) {
+        return this.statePredicates[index];
+    }
+
+    /**
+     * The offset of the position with the given index from the anchor, in the given rotation.
+     */
+    public BlockPos getOffset(int index, Rotation rotation) {
+        int r = rotation.ordinal();
+        return new BlockPos(this.offsetsX[r][index], this.offsetsY[r][index], this.offsetsZ[r][index]);
+    }
+
+    /**
+     * The box around all positions that are checked when validating at the given anchor, in any rotation.
+     */
+    public BoundingBox getBounds(BlockPos anchor) {
+        return this.bounds.moved(anchor.getX(), anchor.getY(), anchor.getZ());
+    }
+
+    /**
+     * Loads chunks that are not loaded yet, like reading the positions through {@link Level#getBlockState(BlockPos)}
+     * would. Use {@link #check(LevelReader, BlockPos, Rotation)} to validate without loading chunks.
+     *
+     * @param anchor   the position the multiblock is anchored at, as passed to {@link Multiblock#validate(Level, BlockPos, Rotation)}.
+     * @param rotation the rotation to validate.
+     * @return true if all positions match.
+     */
+    public boolean validate(Level level, BlockPos anchor, Rotation rotation) {
+        return this.check(level, anchor, rotation, true) == Result.VALID;
+    }
+
+    /**
+     * Like {@link #validate(Level, BlockPos, Rotation)}, but tells apart mismatches and positions in chunks that are
+     * not loaded. Chunks are never loaded by validation.
+     * <p>
+     * Each chunk section is resolved once per call, blocks are then read from the section directly, instead of
+     * resolving chunk and section again for every position.
+     * <p>
+     * Takes any level reader, not only levels, e.g. a world gen region.
+     */
+    public Result check(LevelReader level, BlockPos anchor, Rotation rotation) {
+        return this.check(level, anchor, rotation, false);
+    }
+
+    private Result check(LevelReader level, BlockPos anchor, Rotation rotation, boolean loadChunks) {
+        var sections = SECTIONS.get();
+        try {
+            return this.check(level, anchor, rotation, loadChunks, sections);
+        } finally {
+            sections.clear();
+        }
+    }
+
+    private Result check(LevelReader level, BlockPos anchor, Rotation rotation, boolean loadChunks, Long2ObjectMap<LevelChunkSection> sections) {
+        var cursor = CURSOR.get();
+
+        var stateRotation = AbstractMultiblock.fixHorizontal(rotation);
+        int[] offsetsX = this.offsetsX[rotation.ordinal()];
+        int[] offsetsY = this.offsetsY[rotation.ordinal()];
+        int[] offsetsZ = this.offsetsZ[rotation.ordinal()];
+        int anchorX = anchor.getX();
+        int anchorY = anchor.getY();
+        int anchorZ = anchor.getZ();
+
+        LevelChunkSection section = null;
+        long sectionPos = Long.MIN_VALUE;
+        for (int i = 0; i < this.predicates.length; i++) {
+            int x = anchorX + offsetsX[i];
+            int y = anchorY + offsetsY[i];
+            int z = anchorZ + offsetsZ[i];
+            cursor.set(x, y, z);
+
+            BlockState state;
+            if (level.isOutsideBuildHeight(y)) {
+                state = Blocks.VOID_AIR.defaultBlockState();
+            } else {
+                long pos = SectionPos.asLong(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z));
+                if (pos != sectionPos) {
+                    sectionPos = pos;
+                    section = sections.get(pos);
+                    if (section == null) {
+                        var chunk = level.getChunk(SectionPos.x(pos), SectionPos.z(pos), ChunkStatus.FULL, loadChunks);
+                        if (chunk == null) {
+                            return Result.NOT_LOADED;
+                        }
+                        section = chunk.getSection(level.getSectionIndexFromSectionY(SectionPos.y(pos)));
+                        sections.put(pos, section);
+                    }
+                }
+                state = section.getBlockState(x & 15, y & 15, z & 15);
+            }
+
+            if (!this.predicates[i].test(level, this.statePredicates[i] ? cursor : cursor.immutable(), state.rotate(stateRotation))) {
+                return Result.INVALID;
+            }
+        }
+        return Result.VALID;
+    }
+
+    public enum Result {
+        VALID,
+        INVALID,
+        /**
+         * A position is in a chunk that is not loaded, so the multiblock could not be validated.
+         */
+        NOT_LOADED
+    }
+}
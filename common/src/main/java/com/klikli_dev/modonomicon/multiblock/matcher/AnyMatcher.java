@@ -39,4 +39,14 @@ public class AnyMatcher extends DisplayOnlyMatcher {
     @Override
     public void toNetwork(FriendlyByteBuf buffer) {
     }
+
+    @Override
+    public boolean isStateOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean isRotationInvariant() {
+        return true;
+    }
 }
@@ -110,6 +110,16 @@ public class BlockMatcher implements StateMatcher {
         return true;
     }
 
+    @Override
+    public boolean isStateOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean isRotationInvariant() {
+        return true;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(this.block, this.displayState);
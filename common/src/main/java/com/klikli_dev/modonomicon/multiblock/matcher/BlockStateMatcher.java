@@ -19,6 +19,7 @@ import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.GsonHelper;
 import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.Rotation;
 import net.minecraft.world.level.block.state.BlockState;
 
 import java.util.Objects;
@@ -108,6 +109,17 @@ public class BlockStateMatcher implements StateMatcher {
         return true;
     }
 
+    @Override
+    public boolean isStateOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean isRotationInvariant() {
+        //rotating by 90 degrees generates all rotations
+        return this.blockState.rotate(Rotation.CLOCKWISE_90) == this.blockState;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(this.blockState, this.displayState);
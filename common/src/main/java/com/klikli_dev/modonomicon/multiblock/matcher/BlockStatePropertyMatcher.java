@@ -25,6 +25,7 @@ import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.properties.Property;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Supplier;
@@ -39,13 +40,15 @@ public class BlockStatePropertyMatcher implements StateMatcher {
     private final Block block;
 
     private final Supplier<Map<String, String>> props;
+    private final CompiledStateSet states;
     private final TriPredicate<BlockGetter, BlockPos, BlockState> predicate;
 
     protected BlockStatePropertyMatcher(BlockState displayState, Block block, Supplier<Map<String, String>> props) {
         this.displayState = displayState;
         this.block = block;
         this.props = props;
-        this.predicate = (blockGetter, blockPos, blockState) -> blockState.getBlock() == block && TagMatcher.checkProps(blockState, this.props);
+        this.states = new CompiledStateSet(() -> List.of(block), this.props);
+        this.predicate = (blockGetter, blockPos, blockState) -> this.states.contains(blockState);
     }
 
     public static BlockStatePropertyMatcher fromJson(JsonObject json) {
@@ -126,6 +129,16 @@ public class BlockStatePropertyMatcher implements StateMatcher {
         return true;
     }
 
+    @Override
+    public boolean isStateOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean isRotationInvariant() {
+        return this.props.get().isEmpty();
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(this.block, this.displayState, this.props);
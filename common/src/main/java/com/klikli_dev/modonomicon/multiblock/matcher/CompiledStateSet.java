@@ -0,0 +1,80 @@
+/*
+ * SPDX-FileCopyrightText: 2024 klikli-dev
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.klikli_dev.modonomicon.multiblock.matcher;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * The set of block states a matcher accepts, compiled lazily from blocks and string properties.
+ * <p>
+ * Testing a state against the compiled set is a single identity lookup, instead of looking up and parsing each
+ * property on every test. Sets depending on tags are only valid until tags are bound again, so all sets are recompiled
+ * on first use after {@link #invalidateAll()}.
+ */
+public class CompiledStateSet {
+
+    private static volatile int generation;
+
+    private final Supplier<Iterable<Block>> blocks;
+    private final Supplier<Map<String, String>> props;
+    private volatile Compiled compiled;
+
+    /**
+     * @param blocks the candidate blocks, e.g. the contents of a tag. Queried again on every recompilation.
+     * @param props  the properties the states of the candidate blocks need to have, see
+     *               {@link TagMatcher#checkProps(BlockState, Supplier)}.
+     */
+    public CompiledStateSet(Supplier<Iterable<Block>> blocks, Supplier<Map<String, String>> props) {
+        this.blocks = blocks;
+        this.props = props;
+    }
+
+    /**
+     * Invalidates all compiled sets, called whenever block tags are (re)bound.
+     */
+    public static void invalidateAll() {
+        generation++;
+    }
+
+    public static int getGeneration() {
+        return generation;
+    }
+
+    public boolean contains(BlockState state) {
+        var compiled = this.compiled;
+        if (compiled == null || compiled.generation() != generation) {
+            compiled = this.compile();
+        }
+        return compiled.states().contains(state);
+    }
+
+    private Compiled compile() {
+        //read the generation first, so a concurrent invalidation causes another compilation instead of being lost
+        int generation = CompiledStateSet.generation;
+        Set<BlockState> states = new ReferenceOpenHashSet<>();
+        for (var block : this.blocks.get()) {
+            for (var state : block.getStateDefinition().getPossibleStates()) {
+                if (TagMatcher.checkProps(state, this.props)) {
+                    states.add(state);
+                }
+            }
+        }
+
+        var compiled = new Compiled(generation, states);
+        this.compiled = compiled;
+        return compiled;
+    }
+
+    private record Compiled(int generation, Set<BlockState> states) {
+    }
+}
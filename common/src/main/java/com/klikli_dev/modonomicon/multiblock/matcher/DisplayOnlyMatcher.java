@@ -81,6 +81,16 @@ public class DisplayOnlyMatcher implements StateMatcher {
         return false;
     }
 
+    @Override
+    public boolean isStateOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean isRotationInvariant() {
+        return true;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(this.displayState);
@@ -7,11 +7,18 @@
 package com.klikli_dev.modonomicon.multiblock.matcher;
 
 import com.klikli_dev.modonomicon.Modonomicon;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.block.Blocks;
 
 public class Matchers {
+    /**
+     * Ids of the built-in predicates, see {@link PredicateMatcher}.
+     */
+    public static final ResourceLocation AIR_PREDICATE = Modonomicon.loc("air");
+    public static final ResourceLocation NON_SOLID_PREDICATE = Modonomicon.loc("non_solid");
+
     public static final AnyMatcher ANY = new AnyMatcher();
 
-    public static final PredicateMatcher AIR = new PredicateMatcher(Blocks.AIR.defaultBlockState(), Modonomicon.loc("air"), false);
+    public static final PredicateMatcher AIR = new PredicateMatcher(Blocks.AIR.defaultBlockState(), AIR_PREDICATE, false);
 
 }
@@ -100,6 +100,22 @@ public class PredicateMatcher implements StateMatcher {
         return this.countsTowardsTotalBlocks;
     }
 
+    @Override
+    public boolean isRotationInvariant() {
+        //only the built-in predicates are known to not look at rotated properties
+        return this.isBuiltIn();
+    }
+
+    @Override
+    public boolean isStateOnly() {
+        //custom predicates may look at the world, e.g. at block entities
+        return this.isBuiltIn();
+    }
+
+    private boolean isBuiltIn() {
+        return this.predicateId.equals(Matchers.AIR_PREDICATE) || this.predicateId.equals(Matchers.NON_SOLID_PREDICATE);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(this.predicateId, this.displayState);
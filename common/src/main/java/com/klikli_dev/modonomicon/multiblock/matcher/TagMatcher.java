@@ -7,7 +7,8 @@
 package com.klikli_dev.modonomicon.multiblock.matcher;
 
 import com.google.common.base.Suppliers;
-import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Streams;
 import com.google.gson.JsonObject;
 import com.klikli_dev.modonomicon.Modonomicon;
 import com.klikli_dev.modonomicon.api.multiblock.StateMatcher;
@@ -16,6 +17,7 @@ import com.mojang.brigadier.StringReader;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import net.minecraft.commands.arguments.blocks.BlockStateParser;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
 import net.minecraft.core.Registry;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.core.registries.Registries;
@@ -43,7 +45,12 @@ public class TagMatcher implements StateMatcher {
     private final BlockState displayState;
     private final Supplier<TagKey<Block>> tag;
     private final Supplier<Map<String, String>> props;
+    private final CompiledStateSet states;
     private final TriPredicate<BlockGetter, BlockPos, BlockState> predicate;
+    /**
+     * The default states of the tag contents, resolved once per tag reload, see {@link CompiledStateSet#getGeneration()}.
+     */
+    private volatile DisplayStates displayStates;
 
     protected TagMatcher(Supplier<TagKey<Block>> tag, Supplier<Map<String, String>> props) {
         this(null, tag, props);
@@ -53,7 +60,9 @@ public class TagMatcher implements StateMatcher {
         this.displayState = displayState;
         this.tag = tag;
         this.props = props;
-        this.predicate = (blockGetter, blockPos, blockState) -> blockState.is(this.tag.get()) && checkProps(blockState, this.props);
+        //compiled lazily, as the tag is not bound yet when the matcher is loaded
+        this.states = new CompiledStateSet(() -> Iterables.transform(BuiltInRegistries.BLOCK.getTagOrEmpty(this.tag.get()), Holder::value), this.props);
+        this.predicate = (blockGetter, blockPos, blockState) -> this.states.contains(blockState);
     }
 
     public static TagMatcher fromJson(JsonObject json) {
@@ -144,15 +153,30 @@ public class TagMatcher implements StateMatcher {
     public BlockState getDisplayedState(long ticks) {
         if (this.displayState != null) {
             return this.displayState;
-        } else {
-            var all = ImmutableList.copyOf(BuiltInRegistries.BLOCK.getTagOrEmpty(this.tag.get()));
-            if (all.isEmpty()) {
-                return Blocks.BEDROCK.defaultBlockState(); // show something impossible
-            } else {
-                int idx = (int) ((ticks / 20) % all.size());
-                return all.get(idx).value().defaultBlockState();
-            }
         }
+
+        var displayStates = this.displayStates;
+        if (displayStates == null || displayStates.generation() != CompiledStateSet.getGeneration()) {
+            displayStates = this.resolveDisplayStates();
+        }
+
+        var states = displayStates.states();
+        if (states.length == 0) {
+            return Blocks.BEDROCK.defaultBlockState(); // show something impossible
+        }
+        return states[(int) ((ticks / 20) % states.length)];
+    }
+
+    private DisplayStates resolveDisplayStates() {
+        //read the generation first, so a concurrent tag reload causes another resolution instead of being lost
+        int generation = CompiledStateSet.getGeneration();
+        var states = Streams.stream(BuiltInRegistries.BLOCK.getTagOrEmpty(this.tag.get()))
+                .map(holder -> holder.value().defaultBlockState())
+                .toArray(BlockState[]::new);
+
+        var displayStates = new DisplayStates(generation, states);
+        this.displayStates = displayStates;
+        return displayStates;
     }
 
     @Override
@@ -175,6 +199,16 @@ public class TagMatcher implements StateMatcher {
         return true;
     }
 
+    @Override
+    public boolean isStateOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean isRotationInvariant() {
+        return this.props.get().isEmpty();
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(this.tag, this.props, this.displayState);
@@ -191,4 +225,7 @@ public class TagMatcher implements StateMatcher {
         var that = (TagMatcher) o;
         return this.tag.equals(that.tag) && this.props.equals(that.props) && this.displayState.equals(that.displayState);
     }
+
+    private record DisplayStates(int generation, BlockState[] states) {
+    }
 }
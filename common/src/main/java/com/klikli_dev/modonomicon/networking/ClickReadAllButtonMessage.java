@@ -51,17 +51,12 @@ public class ClickReadAllButtonMessage implements Message {
     public void onServerReceived(MinecraftServer minecraftServer, ServerPlayer player) {
         var book = BookDataManager.get().getBook(this.bookId);
         if (book != null) {
-            //unlock pages, then update the unlock capability, finally sync.
-            var anyRead = false;
-            for (var entry : book.getEntries().values()) {
-                if ((this.readAll || BookUnlockStateManager.get().isUnlockedFor(player, entry)) && BookUnlockStateManager.get().readFor(player, entry)) {
-                    anyRead = true;
-                }
-            }
+            var counts = BookUnlockStateManager.get().getCountersFor(player, book).get();
+            if (this.readAll ? !counts.hasUnread() : !counts.hasUnreadUnlocked())
+                return; //nothing to read, e.g. a repeated click before the sync arrived
 
-            if (anyRead) {
-                BookUnlockStateManager.get().updateAndSyncFor(player);
-            }
+            //read all at once, then update the unlock capability, finally sync.
+            BookUnlockStateManager.get().readAllFor(player, book, this.readAll);
         }
     }
 }
@@ -36,11 +36,13 @@ public class SyncBookUnlockStatesMessage implements Message {
     @Override
     public void encode(FriendlyByteBuf buf) {
         buf.writeJsonWithCodec(BookUnlockStates.CODEC, this.states);
+        this.states.writeCounters(buf);
     }
 
     @Override
     public void decode(FriendlyByteBuf buf) {
         this.states = buf.readJsonWithCodec(BookUnlockStates.CODEC);
+        this.states.readCounters(buf);
     }
 
     @Override
@@ -52,6 +54,7 @@ public class SyncBookUnlockStatesMessage implements Message {
     public void onClientReceived(Minecraft minecraft, Player player) {
         //we are not allowed to overwrite the save data if we are in singleplayer or if we are the lan host, otherwise we would overwrite the server side save data!
         if (minecraft.getSingleplayerServer() == null){
+            this.states.bindCounters();
             BookUnlockStateManager.get().saveData = new BookStatesSaveData(
                     new ConcurrentHashMap<>(Map.of(player.getUUID(), this.states)),
                     new ConcurrentHashMap<>()
@@ -14,4 +14,15 @@ public interface ClientConfigHelper {
     boolean storeLastOpenPageWhenClosingEntry();
 
     List<String> fontFallbackLocales();
+
+    /**
+     * The video memory image pages may use for their textures, in megabytes. At least 8, so the images shown on
+     * both open pages fit.
+     */
+    int imageTextureBudgetMb();
+
+    /**
+     * If the frame time overlay is shown on book screens when they are opened. It can also be toggled in the book with F7.
+     */
+    boolean enableBookDebugOverlay();
 }
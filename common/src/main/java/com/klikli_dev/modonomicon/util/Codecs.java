@@ -31,6 +31,10 @@ public class Codecs {
         return mapCodec.xmap(ConcurrentHashMap::new, HashMap::new);
     }
 
+    public static <V> Codec<List<V>> mutableList(Codec<V> elementCodec) {
+        return elementCodec.listOf().xmap(ArrayList::new, ArrayList::new);
+    }
+
     public static <V> Codec<Set<V>> set(Codec<V> elementCodec) {
         return setFromList(elementCodec.listOf());
     }
@@ -6,6 +6,7 @@
 
 package com.klikli_dev.modonomicon;
 
+import com.klikli_dev.modonomicon.bookstate.BookCommandQueue;
 import com.klikli_dev.modonomicon.bookstate.BookUnlockStateManager;
 import com.klikli_dev.modonomicon.bookstate.BookVisualStateManager;
 import com.klikli_dev.modonomicon.config.ClientConfig;
@@ -21,6 +22,7 @@ import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
 import net.fabricmc.fabric.api.itemgroup.v1.ItemGroupEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
@@ -85,9 +87,13 @@ public class ModonomiconFabric implements ModInitializer {
             if(level.dimension() == Level.OVERWORLD) {
                 BookUnlockStateManager.get().saveData = null;
                 BookVisualStateManager.get().saveData = null;
+                BookCommandQueue.get().clear();
             }
         });
 
+        //run queued book commands, e.g. first read commands of "read all"
+        ServerTickEvents.END_SERVER_TICK.register(server -> BookCommandQueue.get().onServerTick(server));
+
         //Advancement event handling for condition/unlock system
         //done in MixinPlayerAdvancements, because we have no event in Fabric
 
@@ -8,17 +8,21 @@ package com.klikli_dev.modonomicon;
 
 import com.google.gson.JsonElement;
 import com.klikli_dev.modonomicon.client.ClientTicks;
+import com.klikli_dev.modonomicon.client.render.BookShaders;
 import com.klikli_dev.modonomicon.client.render.MultiblockPreviewRenderer;
+import com.klikli_dev.modonomicon.client.render.page.BookEntityPagePool;
 import com.klikli_dev.modonomicon.client.render.page.PageRendererRegistry;
 import com.klikli_dev.modonomicon.config.ClientConfig;
 import com.klikli_dev.modonomicon.data.BookDataManager;
 import com.klikli_dev.modonomicon.data.ReloadListenerWrapper;
+import com.klikli_dev.modonomicon.multiblock.MultiblockBlockEntityCache;
 import com.klikli_dev.modonomicon.network.ClientNetworking;
 import com.klikli_dev.modonomicon.network.Networking;
 import com.klikli_dev.modonomicon.registry.FabricClientCommandRegistry;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.rendering.v1.CoreShaderRegistrationCallback;
 import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
 import net.fabricmc.fabric.api.event.player.UseBlockCallback;
 import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
@@ -61,6 +65,10 @@ public class ModonomiconFabricClient implements ClientModInitializer {
         //Tick multiblock preview
         ClientTickEvents.END_CLIENT_TICK.register(MultiblockPreviewRenderer::onClientTick);
 
+        //Drop pooled entity page entities when the level changes
+        ClientTickEvents.END_CLIENT_TICK.register(mc -> BookEntityPagePool.get().onClientTick(mc));
+        ClientTickEvents.END_CLIENT_TICK.register(mc -> MultiblockBlockEntityCache.get().onClientTick(mc.level));
+
         //Render multiblock preview
         //done in MixinLevelRenderer, because we have no event in Fabric
 
@@ -73,6 +81,11 @@ public class ModonomiconFabricClient implements ClientModInitializer {
                 BookDataManager.Client.get()
         ));
 
+        //register core shaders
+        CoreShaderRegistrationCallback.EVENT.register(context ->
+                context.register(BookShaders.PARALLAX_BACKGROUND, BookShaders.PARALLAX_BACKGROUND_FORMAT, BookShaders::setParallaxBackground)
+        );
+
         //book geometry loader
         //done in MixinModelManager, because we have no event in Fabric
     }
@@ -6,7 +6,9 @@
 
 package com.klikli_dev.modonomicon.client;
 
-import com.klikli_dev.modonomicon.item.ModonomiconItem;
+import com.klikli_dev.modonomicon.api.ModonomiconConstants.Nbt;
+import com.klikli_dev.modonomicon.book.Book;
+import com.klikli_dev.modonomicon.data.BookDataManager;
 import com.klikli_dev.modonomicon.registry.ItemRegistry;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientLevel;
@@ -26,6 +28,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -34,6 +37,16 @@ public class BookModel implements BakedModel {
     private final BakedModel original;
     private final ItemOverrides itemHandler;
 
+    /**
+     * The models of the books, by the book id string stored on the stack, so resolving a stack neither parses the id
+     * nor looks up the model. A new BookModel is created on every model bake, which starts with an empty cache.
+     */
+    private final Map<String, BakedModel> bookModels = new HashMap<>();
+    /**
+     * The books the cached models were resolved for. The client replaces the map whenever books are synced.
+     */
+    private Map<ResourceLocation, Book> bookModelsSource;
+
     private BookModel(BakedModel original, ModelBakery loader) {
         this.original = original;
         BlockModel missing = (BlockModel) loader.getModel(ModelBakery.MISSING_MODEL_LOCATION);
@@ -61,16 +74,36 @@ public class BookModel implements BakedModel {
             @Override
             public BakedModel resolve(@NotNull BakedModel original, @NotNull ItemStack stack,
                                       @Nullable ClientLevel world, @Nullable LivingEntity entity, int seed) {
-                var book = ModonomiconItem.getBook(stack);
-                if (book != null) {
-                    ModelResourceLocation modelPath = new ModelResourceLocation(book.getModel(), "inventory");
-                    return Minecraft.getInstance().getModelManager().getModel(modelPath);
+                var tag = stack.getTag();
+                if (tag == null || !tag.contains(Nbt.ITEM_BOOK_ID_TAG)) {
+                    return original;
                 }
-                return original;
+                return BookModel.this.getBookModel(tag.getString(Nbt.ITEM_BOOK_ID_TAG), original);
             }
         };
     }
 
+    private BakedModel getBookModel(String bookId, BakedModel original) {
+        var books = BookDataManager.get().getBooks();
+        if (books != this.bookModelsSource) {
+            this.bookModels.clear();
+            this.bookModelsSource = books;
+        }
+
+        var model = this.bookModels.get(bookId);
+        if (model == null) {
+            var id = ResourceLocation.tryParse(bookId);
+            var book = id == null ? null : books.get(id);
+            if (book == null) {
+                //not cached, the book may not be synced yet
+                return original;
+            }
+            model = Minecraft.getInstance().getModelManager().getModel(new ModelResourceLocation(book.getModel(), "inventory"));
+            this.bookModels.put(bookId, model);
+        }
+        return model;
+    }
+
     public static void replace(Map<ResourceLocation, BakedModel> models, ModelBakery bakery) {
         ModelResourceLocation key = new ModelResourceLocation(ItemRegistry.MODONOMICON.getId(), "inventory");
         models.computeIfPresent(key, (k, oldModel) -> new BookModel(oldModel, bakery));
@@ -27,6 +27,8 @@ public class ClientConfig {
     public static PropertyMirror<Boolean> enableSmoothZoom = PropertyMirror.create(ConfigTypes.BOOLEAN);
     public static PropertyMirror<Boolean> storeLastOpenPageWhenClosingEntry = PropertyMirror.create(ConfigTypes.BOOLEAN);
     public static PropertyMirror<List<String>> fontFallbackLocales = PropertyMirror.create(ConfigTypes.makeList(ConfigTypes.STRING));
+    public static PropertyMirror<Integer> imageTextureBudgetMb = PropertyMirror.create(ConfigTypes.INTEGER.withMinimum(8));
+    public static PropertyMirror<Boolean> enableBookDebugOverlay = PropertyMirror.create(ConfigTypes.BOOLEAN);
 
     private static final ConfigTree CONFIG = ConfigTree.builder()
             .fork("qol")
@@ -42,6 +44,15 @@ public class ClientConfig {
             .withComment("If your locale is not supported by the default Modonomicon font, indicated by the book just rendering blocky shapes instead of characters, add your locale to this list to fall back to the builtin Minecraft font.")
             .finishValue(fontFallbackLocales::mirror)
             .finishBranch()
+            .fork("performance")
+            .withComment("Performance Settings")
+            .beginValue("imageTextureBudgetMb", ConfigTypes.INTEGER.withMinimum(8), 64)
+            .withComment("The video memory in megabytes image pages may use for their (downscaled) images. If exceeded, the least recently shown images are unloaded.")
+            .finishValue(imageTextureBudgetMb::mirror)
+            .beginValue("enableBookDebugOverlay", ConfigTypes.BOOLEAN, false)
+            .withComment("Show frame times, draw calls and allocations on book screens, e.g. to attach them to a bug report about book performance. Can also be toggled with F7 in a book, Ctrl+F7 exports the recorded frames as CSV.")
+            .finishValue(enableBookDebugOverlay::mirror)
+            .finishBranch()
             .build();
 
     public static void init() {
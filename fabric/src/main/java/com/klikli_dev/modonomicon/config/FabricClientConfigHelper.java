@@ -25,4 +25,14 @@ public class FabricClientConfigHelper implements ClientConfigHelper {
     public List<String> fontFallbackLocales() {
         return ClientConfig.fontFallbackLocales.getValue();
     }
+
+    @Override
+    public int imageTextureBudgetMb() {
+        return ClientConfig.imageTextureBudgetMb.getValue();
+    }
+
+    @Override
+    public boolean enableBookDebugOverlay() {
+        return ClientConfig.enableBookDebugOverlay.getValue();
+    }
 }
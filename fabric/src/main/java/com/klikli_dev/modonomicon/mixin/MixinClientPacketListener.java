@@ -6,10 +6,12 @@
 
 package com.klikli_dev.modonomicon.mixin;
 
+import com.klikli_dev.modonomicon.client.render.page.DisplayStackCache;
 import com.klikli_dev.modonomicon.data.BookDataManager;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientPacketListener;
 import net.minecraft.network.protocol.game.ClientboundUpdateRecipesPacket;
+import net.minecraft.network.protocol.game.ClientboundUpdateTagsPacket;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -21,4 +23,10 @@ public abstract class MixinClientPacketListener {
     private void handleUpdateRecipes(ClientboundUpdateRecipesPacket pPacket, CallbackInfo info) {
         BookDataManager.get().onRecipesUpdated(Minecraft.getInstance().level);
     }
+
+    @Inject(at = @At("TAIL"), method = "handleUpdateTags(Lnet/minecraft/network/protocol/game/ClientboundUpdateTagsPacket;)V")
+    private void handleUpdateTags(ClientboundUpdateTagsPacket pPacket, CallbackInfo info) {
+        //ingredients resolve their stacks from item tags
+        DisplayStackCache.get().invalidate();
+    }
 }
\ No newline at end of file
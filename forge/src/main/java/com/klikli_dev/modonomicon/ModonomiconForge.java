@@ -6,21 +6,27 @@
 
 package com.klikli_dev.modonomicon;
 
+import com.klikli_dev.modonomicon.bookstate.BookCommandQueue;
 import com.klikli_dev.modonomicon.bookstate.BookUnlockStateManager;
 import com.klikli_dev.modonomicon.bookstate.BookVisualStateManager;
 import com.klikli_dev.modonomicon.client.BookModelLoader;
 import com.klikli_dev.modonomicon.client.ClientTicks;
+import com.klikli_dev.modonomicon.client.render.BookShaders;
 import com.klikli_dev.modonomicon.client.render.MultiblockPreviewRenderer;
+import com.klikli_dev.modonomicon.client.render.page.BookEntityPagePool;
+import com.klikli_dev.modonomicon.client.render.page.DisplayStackCache;
 import com.klikli_dev.modonomicon.client.render.page.PageRendererRegistry;
 import com.klikli_dev.modonomicon.config.ClientConfig;
 import com.klikli_dev.modonomicon.data.BookDataManager;
 import com.klikli_dev.modonomicon.data.LoaderRegistry;
 import com.klikli_dev.modonomicon.data.MultiblockDataManager;
+import com.klikli_dev.modonomicon.multiblock.MultiblockBlockEntityCache;
 import com.klikli_dev.modonomicon.datagen.DataGenerators;
 import com.klikli_dev.modonomicon.network.Networking;
 import com.klikli_dev.modonomicon.registry.CommandRegistry;
 import com.klikli_dev.modonomicon.registry.CreativeModeTabRegistry;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.ShaderInstance;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.server.packs.resources.PreparableReloadListener;
 import net.minecraft.server.packs.resources.ResourceManager;
@@ -34,6 +40,7 @@ import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.AddReloadListenerEvent;
 import net.minecraftforge.event.OnDatapackSyncEvent;
 import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.event.TagsUpdatedEvent;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.EntityJoinLevelEvent;
 import net.minecraftforge.event.entity.player.AdvancementEvent;
@@ -48,6 +55,7 @@ import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 import net.minecraftforge.fml.loading.FMLEnvironment;
 
+import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
@@ -110,6 +118,14 @@ public class ModonomiconForge {
             if (e.getLevel() instanceof Level level && level.dimension() == Level.OVERWORLD) {
                 BookUnlockStateManager.get().saveData = null;
                 BookVisualStateManager.get().saveData = null;
+                BookCommandQueue.get().clear();
+            }
+        });
+
+        //run queued book commands, e.g. first read commands of "read all"
+        MinecraftForge.EVENT_BUS.addListener((TickEvent.ServerTickEvent e) -> {
+            if (e.phase == TickEvent.Phase.END) {
+                BookCommandQueue.get().onServerTick(e.getServer());
             }
         });
 
@@ -125,8 +141,10 @@ public class ModonomiconForge {
             modEventBus.addListener(Client::onClientSetup);
             modEventBus.addListener(Client::onRegisterGeometryLoaders);
             modEventBus.addListener(Client::onRegisterGuiOverlays);
+            modEventBus.addListener(Client::onRegisterShaders);
             //build books and render markdown when client receives recipes
             MinecraftForge.EVENT_BUS.addListener(Client::onRecipesUpdated);
+            MinecraftForge.EVENT_BUS.addListener(Client::onTagsUpdated);
 
             //register client side reload listener that will reset the fallback font to handle locale changes on the fly
             modEventBus.addListener((RegisterClientReloadListenersEvent e) -> {
@@ -171,6 +189,8 @@ public class ModonomiconForge {
             MinecraftForge.EVENT_BUS.addListener((TickEvent.ClientTickEvent e) -> {
                 if (e.phase == TickEvent.Phase.END) {
                     MultiblockPreviewRenderer.onClientTick(Minecraft.getInstance());
+                    BookEntityPagePool.get().onClientTick(Minecraft.getInstance());
+                    MultiblockBlockEntityCache.get().onClientTick(Minecraft.getInstance().level);
                 }
             });
 
@@ -189,10 +209,26 @@ public class ModonomiconForge {
             BookDataManager.get().onRecipesUpdated(Minecraft.getInstance().level);
         }
 
+        public static void onTagsUpdated(TagsUpdatedEvent event) {
+            //ingredients resolve their stacks from item tags
+            if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.CLIENT_PACKET_RECEIVED) {
+                DisplayStackCache.get().invalidate();
+            }
+        }
+
         public static void onRegisterGeometryLoaders(ModelEvent.RegisterGeometryLoaders event) {
             event.register("book_model_loader", new BookModelLoader());
         }
 
+        public static void onRegisterShaders(RegisterShadersEvent event) {
+            try {
+                event.registerShader(new ShaderInstance(event.getResourceProvider(), BookShaders.PARALLAX_BACKGROUND, BookShaders.PARALLAX_BACKGROUND_FORMAT), BookShaders::setParallaxBackground);
+            } catch (IOException e) {
+                //category backgrounds fall back to drawing layer by layer
+                Modonomicon.LOG.error("Failed to load parallax background shader", e);
+            }
+        }
+
         public static void onRegisterGuiOverlays(RegisterGuiOverlaysEvent event) {
             event.registerBelow(VanillaGuiOverlay.BOSS_EVENT_PROGRESS.id(), "multiblock_hud", (gui, guiGraphics, partialTick, screenWidth, screenHeight) -> {
                 MultiblockPreviewRenderer.onRenderHUD(guiGraphics, partialTick);
@@ -8,6 +8,7 @@ package com.klikli_dev.modonomicon.config;
 
 import net.minecraftforge.common.ForgeConfigSpec;
 import net.minecraftforge.common.ForgeConfigSpec.BooleanValue;
+import net.minecraftforge.common.ForgeConfigSpec.IntValue;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,11 +18,13 @@ public class ClientConfig {
     private static final ClientConfig instance = new ClientConfig();
 
     public final QoLCategory qolCategory;
+    public final PerformanceCategory performanceCategory;
     public final ForgeConfigSpec spec;
 
     private ClientConfig() {
         ForgeConfigSpec.Builder builder = new ForgeConfigSpec.Builder();
         this.qolCategory = new QoLCategory(builder);
+        this.performanceCategory = new PerformanceCategory(builder);
         this.spec = builder.build();
     }
 
@@ -50,4 +53,18 @@ public class ClientConfig {
             builder.pop();
         }
     }
+
+    public static class PerformanceCategory {
+        public final IntValue imageTextureBudgetMb;
+        public final BooleanValue enableBookDebugOverlay;
+
+        public PerformanceCategory(ForgeConfigSpec.Builder builder) {
+            builder.comment("Performance Settings").push("performance");
+            this.imageTextureBudgetMb = builder.comment("The video memory in megabytes image pages may use for their (downscaled) images. If exceeded, the least recently shown images are unloaded.")
+                    .defineInRange("imageTextureBudgetMb", 64, 8, Integer.MAX_VALUE);
+            this.enableBookDebugOverlay = builder.comment("Show frame times, draw calls and allocations on book screens, e.g. to attach them to a bug report about book performance. Can also be toggled with F7 in a book, Ctrl+F7 exports the recorded frames as CSV.")
+                    .define("enableBookDebugOverlay", false);
+            builder.pop();
+        }
+    }
 }
@@ -26,5 +26,13 @@ public class ForgeClientConfigHelper implements ClientConfigHelper {
         return ClientConfig.get().qolCategory.fontFallbackLocales.get();
     }
 
+    @Override
+    public int imageTextureBudgetMb() {
+        return ClientConfig.get().performanceCategory.imageTextureBudgetMb.get();
+    }
 
+    @Override
+    public boolean enableBookDebugOverlay() {
+        return ClientConfig.get().performanceCategory.enableBookDebugOverlay.get();
+    }
 }